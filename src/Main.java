@@ -1,6 +1,18 @@
+import ai.EngineConfig;
+import ai.SearchBenchmark;
+import model.EvaluatorWeights;
+import protocol.GomocupProtocol;
+import server.GameServer;
+import server.LoadGenerator;
+import tuning.SelfPlayRecorder;
+import tuning.TexelTuner;
 import view.GameWindow;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * 类 Main 是五子棋游戏的主类，用于启动应用程序。
@@ -9,15 +21,76 @@ public class Main {
     /**
      * 主方法，程序入口
      *
-     * @param args 命令行参数
+     * @param args 命令行参数：
+     *             --gomocup 以 Gomocup 协议在标准输入输出上运行；
+     *             --server [端口] 启动 HTTP 游戏服务器；
+     *             --load 地址 [游戏数] [每局步数] [每步毫秒] 对游戏服务器进行压力测试；
+     *             --selfplay 局数 输出文件 [搜索深度] 自我对弈生成调参用的局面记录；
+     *             --tune 局面记录文件 [输出文件] [轮数] 调整评估分值并写入配置文件；
+     *             --bench [搜索深度] 用战术局面比较各选择性搜索技术；
+     *             无参数时启动图形界面。
+     *             图形界面、协议和服务器模式启动前按 -Dgobang.warmup 预热搜索，置换表大小由 -Dgobang.hashMb 指定
+     * @throws IOException          协议或服务器模式下输入输出失败时抛出
+     * @throws InterruptedException 压力测试被中断时抛出
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "--gomocup".equals(args[0])) {
+            // 标准输出留给协议，预热信息写到标准错误
+            if (EngineConfig.isWarmUpEnabled()) {
+                System.err.println("JIT 预热耗时 " + EngineConfig.warmUp() + "ms");
+            }
+            new GomocupProtocol(System.in, System.out).run();
+            return;
+        }
+        if (args.length > 0 && "--server".equals(args[0])) {
+            warmUp();
+            GameServer server = new GameServer(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            server.start();
+            System.out.println("五子棋服务器已启动，端口 " + server.getPort());
+            return;
+        }
+        if (args.length > 1 && "--load".equals(args[0])) {
+            new LoadGenerator(URI.create(args[1]),
+                    args.length > 2 ? Integer.parseInt(args[2]) : 100,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 20,
+                    args.length > 4 ? Long.parseLong(args[4]) : GameServer.DEFAULT_BUDGET).run();
+            return;
+        }
+        if (args.length > 2 && "--selfplay".equals(args[0])) {
+            int positions = new SelfPlayRecorder(Integer.parseInt(args[1]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 1, 4).record(Paths.get(args[2]));
+            System.out.println("已记录 " + positions + " 个局面");
+            return;
+        }
+        if (args.length > 1 && "--tune".equals(args[0])) {
+            Path output = Paths.get(args.length > 2 ? args[2] : EvaluatorWeights.DEFAULT_FILE);
+            TexelTuner tuner = new TexelTuner(TexelTuner.loadPositions(Paths.get(args[1])));
+            EvaluatorWeights weights = tuner.tune(EvaluatorWeights.getDefault(), args.length > 3 ? Integer.parseInt(args[3]) : 100);
+            weights.save(output, "Texel tuned evaluator weights");
+            System.out.println("已写入 " + output);
+            return;
+        }
+        if (args.length > 0 && "--bench".equals(args[0])) {
+            boolean passed = new SearchBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 4).run();
+            System.exit(passed ? 0 : 1);
+        }
+        // 在窗口出现前预热，使第一步的思考时间与之后相当
+        warmUp();
         // 使用 SwingUtilities.invokeLater 确保在事件调度线程上创建和显示 GUI 组件
         SwingUtilities.invokeLater(() -> {
             GameWindow window = new GameWindow();
             window.setVisible(true);
         });
     }
+
+    /**
+     * 未关闭预热时预热搜索并输出耗时
+     */
+    private static void warmUp() {
+        if (EngineConfig.isWarmUpEnabled()) {
+            System.out.println("JIT 预热耗时 " + EngineConfig.warmUp() + "ms");
+        }
+    }
 }
 
 
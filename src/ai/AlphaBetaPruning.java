@@ -1,21 +1,155 @@
 package ai;
 
 import enums.Player;
+import enums.ThreatLevel;
 import model.Board;
 import model.GameEvaluator;
 import model.Move;
 
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
 /**
  * 类 AlphaBetaPruning 在极大极小算法的基础上实现了Alpha-Beta剪枝优化。
  */
 public class AlphaBetaPruning {
+    /**
+     * 静态搜索的最大延伸层数，防止连续冲四导致搜索无法收敛
+     */
+    public static final int QUIESCENCE_DEPTH = 6;
+    /**
+     * 剩余深度不小于该值时才对靠后的走法减少深度
+     */
+    public static final int LMR_MIN_DEPTH = 3;
+    /**
+     * 排序靠前、始终完整搜索的走法数量
+     */
+    public static final int LMR_FULL_MOVES = 4;
+    /**
+     * 排序在此之后的走法减少两层
+     */
+    public static final int LMR_DEEP_MOVES = 12;
+    /**
+     * 成五的分数，高于任何静态评估；减去成五时距根节点的层数，使越快的胜利分数越高、越慢的失败分数越高
+     */
+    public static final int WIN_SCORE = 2 * GameEvaluator.MAX_SCORE;
+    /**
+     * 轮到计算机走时混入局面哈希值的随机数，区分同一棋形下的双方
+     */
+    private static final long SIDE_KEY = 0x9E3779B97F4A7C15L;
     private final GameEvaluator evaluator;
+    private final TranspositionTable table;
+    /**
+     * 静态搜索每层的候选走法缓冲区，按剩余层数索引
+     */
+    private final int[][] quiescenceBuffers = new int[QUIESCENCE_DEPTH + 1][];
+    /**
+     * 每层的候选走法（格子下标）、排序优先级和是否平静，按距根节点的层数索引，避免搜索时分配对象
+     */
+    private int[][] moveStack = new int[0][];
+    private int[][] priorityStack = new int[0][];
+    private boolean[][] quietStack = new boolean[0][];
+    /**
+     * 搜索截止时间（System.nanoTime），0 表示不限时
+     */
+    private long deadline;
+    private boolean lateMoveReduction = true;
+    private boolean futilityPruning = true;
+    private boolean distantMovePruning = true;
+    private boolean transpositionTable = true;
+    private long nodeCount;
 
     /**
-     * 构造方法，初始化评估函数
+     * 构造方法，初始化评估函数，并按 EngineConfig 的内存预算分配独立的置换表
      */
     public AlphaBetaPruning() {
+        this(new TranspositionTable(EngineConfig.getHashMb()));
+    }
+
+    /**
+     * 构造方法，使用指定的置换表，多个搜索器可以共用一张表
+     *
+     * @param table 置换表
+     */
+    public AlphaBetaPruning(TranspositionTable table) {
         this.evaluator = new GameEvaluator();
+        this.table = table;
+    }
+
+    /**
+     * 预先分配各层的候选走法缓冲区，使第一次搜索不必在递归中分配内存
+     *
+     * @param maxDepth 最大搜索深度
+     * @param cells    棋盘格子总数
+     */
+    public void preallocate(int maxDepth, int cells) {
+        for (int ply = 0; ply < maxDepth; ply++) {
+            moveBuffers(ply, cells);
+        }
+        for (int qDepth = 0; qDepth <= QUIESCENCE_DEPTH; qDepth++) {
+            quiescenceBuffer(qDepth, cells);
+        }
+    }
+
+    /**
+     * 设置搜索截止时间，超时后搜索抛出 CancellationException
+     *
+     * @param deadline 截止时间（System.nanoTime），0 表示不限时
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * 设置是否对排序靠后的平静走法减少搜索深度
+     *
+     * @param lateMoveReduction 是否开启
+     */
+    public void setLateMoveReduction(boolean lateMoveReduction) {
+        this.lateMoveReduction = lateMoveReduction;
+    }
+
+    /**
+     * 设置是否在前沿节点剪掉无望的平静走法
+     *
+     * @param futilityPruning 是否开启
+     */
+    public void setFutilityPruning(boolean futilityPruning) {
+        this.futilityPruning = futilityPruning;
+    }
+
+    /**
+     * 设置是否忽略两格之内没有棋子的走法
+     *
+     * @param distantMovePruning 是否开启
+     */
+    public void setDistantMovePruning(boolean distantMovePruning) {
+        this.distantMovePruning = distantMovePruning;
+    }
+
+    /**
+     * 设置是否使用置换表保存和复用已搜索局面的结果
+     *
+     * @param transpositionTable 是否开启
+     */
+    public void setTranspositionTable(boolean transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * 获取累计搜索的节点数（包括静态搜索节点）
+     *
+     * @return 节点数
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 清零节点计数
+     */
+    public void resetNodeCount() {
+        nodeCount = 0;
     }
 
     /**
@@ -27,64 +161,352 @@ public class AlphaBetaPruning {
      * @param beta    Beta值
      * @param maximizing 是否是最大化层
      * @return 返回包含最佳走法和评估分数的对象
+     * @throws CancellationException 搜索线程被中断或超过截止时间时抛出，此时棋盘状态不再可用
      */
     public MinimaxResult minimaxWithAlphaBeta(Board board, int depth, int alpha, int beta, boolean maximizing) {
-        // 找到最后一步的位置
+        return search(board, depth, alpha, beta, maximizing, 0);
+    }
+
+    /**
+     * 极大极小搜索的递归实现
+     *
+     * @param board      当前棋盘状态
+     * @param depth      剩余搜索深度
+     * @param alpha      Alpha值
+     * @param beta       Beta值
+     * @param maximizing 是否是最大化层
+     * @param ply        距根节点的层数
+     * @return 返回包含最佳走法和评估分数的对象，置换表截断时走法为 null
+     */
+    private MinimaxResult search(Board board, int depth, int alpha, int beta, boolean maximizing, int ply) {
+        // 后台思考被取消时尽快退出
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("搜索已取消");
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            throw new CancellationException("搜索超时");
+        }
+        nodeCount++;
+        // 最后一步成五时对局已结束；没有最后一步（如从外部加载的局面）时跳过该检查
         Move lastMove = board.getLastMove();
-        if (lastMove == null) {
-            return new MinimaxResult(null, evaluator.evaluate(board));
-        }
-        int lastRow = lastMove.getRow();
-        int lastCol = lastMove.getCol();
-
-        if (depth == 0 || board.isGameOver(lastRow, lastCol)) {
-            return new MinimaxResult(null, evaluator.evaluate(board));
-        }
-
-        if (maximizing) {
-            int maxEval = Integer.MIN_VALUE;
-            Move bestMove = null;
-            for (int row = 0; row < board.getSize(); row++) {
-                for (int col = 0; col < board.getSize(); col++) {
-                    if (board.getPiece(row, col) == null) {
-                        board.placePiece(row, col, Player.COMPUTER_PLAYER);
-                        int eval = minimaxWithAlphaBeta(board, depth - 1, alpha, beta, false).score;
-                        board.removePiece(row, col);
-                        if (eval > maxEval) {
-                            maxEval = eval;
-                            bestMove = new Move(row, col);
-                        }
-                        alpha = Math.max(alpha, eval);
-                        //当前节点的beta值小于alpha值时，剪枝
-                        if (beta <= alpha) {
-                            break; // Alpha-Beta剪枝
-                        }
+        if (lastMove != null && board.isGameOver(lastMove.getRow(), lastMove.getCol())) {
+            return new MinimaxResult(null, winScore(board.getPiece(lastMove.getRow(), lastMove.getCol()), ply));
+        }
+        if (depth == 0) {
+            // 到达叶子节点时继续搜索强制走法，直到局面平静，缓解水平线效应
+            return new MinimaxResult(null, quiescence(board, QUIESCENCE_DEPTH, alpha, beta, maximizing, ply));
+        }
+
+        long key = maximizing ? board.getHash() ^ SIDE_KEY : board.getHash();
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (transpositionTable) {
+            long entry = table.probe(key);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                // 根节点需要给出走法，只在内部节点直接使用表中的分数
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT
+                            || flag == TranspositionTable.LOWER && score >= beta
+                            || flag == TranspositionTable.UPPER && score <= alpha) {
+                        return new MinimaxResult(null, score);
                     }
                 }
             }
-            return new MinimaxResult(bestMove, maxEval);
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            Move bestMove = null;
-            for (int row = 0; row < board.getSize(); row++) {
-                for (int col = 0; col < board.getSize(); col++) {
-                    if (board.getPiece(row, col) == null) {
-                        board.placePiece(row, col, Player.HUMAN_PLAYER);
-                        int eval = minimaxWithAlphaBeta(board, depth - 1, alpha, beta, true).score;
-                        board.removePiece(row, col);
-                        if (eval < minEval) {
-                            minEval = eval;
-                            bestMove = new Move(row, col);
-                        }
-                        beta = Math.min(beta, eval);
-                        if (beta <= alpha) {
-                            break; // Alpha-Beta剪枝
-                        }
+        }
+        int alphaOrigin = alpha;
+        int betaOrigin = beta;
+
+        Player player = maximizing ? Player.COMPUTER_PLAYER : Player.HUMAN_PLAYER;
+        int size = board.getSize();
+        int count = generateMoves(board, player, ply, hashMove);
+        int[] moves = moveStack[ply];
+        boolean[] quiet = quietStack[ply];
+        // 前沿节点的静态评估，用于无望剪枝
+        boolean frontier = futilityPruning && depth == 1;
+        int staticEval = frontier ? evaluator.evaluate(board) : 0;
+        // 被截断的评估无法增量计算落子后的分数
+        frontier &= Math.abs(staticEval) < GameEvaluator.MAX_SCORE;
+
+        int bestEval = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int bestCell = -1;
+        for (int i = 0; i < count; i++) {
+            int row = moves[i] / size;
+            int col = moves[i] % size;
+            int eval = 0;
+            boolean futile = false;
+            if (frontier && quiet[i] && bestCell >= 0) {
+                // 平静走法不会让对方被迫挡棋，对方总可以停在落子后的静态评估上，
+                // 该评估已超不出当前界时，搜索结果也超不出，不再搜索
+                eval = evaluator.evaluateAfter(board, staticEval, row, col, player);
+                futile = maximizing ? eval <= alpha : eval >= beta;
+            }
+            if (!futile) {
+                board.placePiece(row, col, player);
+                if (lateMoveReduction && depth >= LMR_MIN_DEPTH && i >= LMR_FULL_MOVES && quiet[i]) {
+                    // 排序靠后的平静走法先以空窗口做减少深度的搜索，超出当前界时再完整搜索
+                    int reduction = Math.min(i >= LMR_DEEP_MOVES ? 2 : 1, depth - 2);
+                    eval = maximizing
+                            ? search(board, depth - 1 - reduction, alpha, alpha + 1, false, ply + 1).score
+                            : search(board, depth - 1 - reduction, beta - 1, beta, true, ply + 1).score;
+                    if (maximizing ? eval > alpha : eval < beta) {
+                        eval = search(board, depth - 1, alpha, beta, !maximizing, ply + 1).score;
                     }
+                } else {
+                    eval = search(board, depth - 1, alpha, beta, !maximizing, ply + 1).score;
                 }
+                board.removePiece(row, col);
             }
-            return new MinimaxResult(bestMove, minEval);
+
+            if (maximizing ? eval > bestEval : eval < bestEval) {
+                bestEval = eval;
+                bestCell = moves[i];
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, eval);
+            } else {
+                beta = Math.min(beta, eval);
+            }
+            //当前节点的beta值小于alpha值时，剪枝；下一步即可成五时不会有更好的走法
+            if (beta <= alpha || (maximizing ? bestEval : -bestEval) >= WIN_SCORE - ply - 1) {
+                break; // Alpha-Beta剪枝
+            }
+        }
+        if (transpositionTable) {
+            int flag = bestEval <= alphaOrigin ? TranspositionTable.UPPER
+                    : bestEval >= betaOrigin ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, toTable(bestEval, ply), depth, flag, bestCell < 0 ? TranspositionTable.NO_MOVE : bestCell);
+        }
+        return new MinimaxResult(bestCell < 0 ? null : new Move(bestCell / size, bestCell % size), bestEval);
+    }
+
+    /**
+     * 生成候选走法并排序，结果写入该层的缓冲区：置换表记录的最佳走法最先，
+     * 其次是能成威胁或挡住对方威胁的走法，其余按周围棋子数排序
+     *
+     * @param board    当前棋盘状态
+     * @param player   走棋的一方
+     * @param ply      距根节点的层数
+     * @param hashMove 置换表记录的最佳走法，没有时为 TranspositionTable.NO_MOVE
+     * @return 候选走法数量
+     */
+    private int generateMoves(Board board, Player player, int ply, int hashMove) {
+        int size = board.getSize();
+        moveBuffers(ply, size * size);
+        int[] moves = moveStack[ply];
+        int[] priorities = priorityStack[ply];
+        boolean[] quiet = quietStack[ply];
+        int count = 0;
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                if (board.getPiece(row, col) != null) {
+                    continue;
+                }
+                int neighbours = countNeighbours(board, row, col, 1);
+                // 两格之内没有棋子的走法对局面没有影响
+                if (distantMovePruning && neighbours == 0 && countNeighbours(board, row, col, 2) == 0) {
+                    continue;
+                }
+                ThreatLevel own = board.threatAt(row, col, player);
+                ThreatLevel opponent = board.threatAt(row, col, player.opposite());
+                int cell = row * size + col;
+                int priority = cell == hashMove ? Integer.MAX_VALUE
+                        : Math.max(own.ordinal() * 2 + 1, opponent.ordinal() * 2) * 16 + neighbours;
+                // 插入排序，优先级相同的走法保持生成顺序
+                int i = count++;
+                while (i > 0 && priorities[i - 1] < priority) {
+                    moves[i] = moves[i - 1];
+                    priorities[i] = priorities[i - 1];
+                    quiet[i] = quiet[i - 1];
+                    i--;
+                }
+                moves[i] = cell;
+                priorities[i] = priority;
+                quiet[i] = own == ThreatLevel.NONE && opponent == ThreatLevel.NONE;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 确保某一层的候选走法缓冲区已分配，层数超出时扩容
+     *
+     * @param ply   距根节点的层数
+     * @param cells 棋盘格子总数
+     */
+    private void moveBuffers(int ply, int cells) {
+        if (ply >= moveStack.length) {
+            moveStack = Arrays.copyOf(moveStack, ply + 1);
+            priorityStack = Arrays.copyOf(priorityStack, ply + 1);
+            quietStack = Arrays.copyOf(quietStack, ply + 1);
+        }
+        if (moveStack[ply] == null || moveStack[ply].length < cells) {
+            moveStack[ply] = new int[cells];
+            priorityStack[ply] = new int[cells];
+            quietStack[ply] = new boolean[cells];
+        }
+    }
+
+    /**
+     * 统计指定距离内的棋子数量
+     *
+     * @param board    当前棋盘状态
+     * @param row      行坐标
+     * @param col      列坐标
+     * @param distance 距离
+     * @return 棋子数量
+     */
+    private int countNeighbours(Board board, int row, int col, int distance) {
+        int count = 0;
+        for (int r = Math.max(0, row - distance); r <= Math.min(board.getSize() - 1, row + distance); r++) {
+            for (int c = Math.max(0, col - distance); c <= Math.min(board.getSize() - 1, col + distance); c++) {
+                if (board.getPiece(r, c) != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 静态搜索，只展开成五、冲四、挡四以及应对活三的强制走法
+     *
+     * @param board      当前棋盘状态
+     * @param qDepth     剩余的静态搜索层数
+     * @param alpha      Alpha值
+     * @param beta       Beta值
+     * @param maximizing 是否是最大化层
+     * @param ply        距根节点的层数
+     * @return 局面平静后的评估分数
+     */
+    private int quiescence(Board board, int qDepth, int alpha, int beta, boolean maximizing, int ply) {
+        nodeCount++;
+        Player player = maximizing ? Player.COMPUTER_PLAYER : Player.HUMAN_PLAYER;
+        Player opponent = player.opposite();
+
+        int size = board.getSize();
+        int[] points = quiescenceBuffer(qDepth, size * size);
+
+        // 己方能直接成五，无需继续搜索
+        if (board.findWinningPoints(player, points) > 0) {
+            return winScore(player, ply + 1);
+        }
+
+        int standPat = evaluator.evaluate(board);
+        if (qDepth == 0) {
+            return standPat;
+        }
+
+        int count = board.findBlockingPoints(player, points);
+        boolean mustBlock = count > 0;
+        if (!mustBlock) {
+            // 对方没有四时才能以静态评估截断
+            if (maximizing) {
+                if (standPat >= beta) {
+                    return standPat;
+                }
+                alpha = Math.max(alpha, standPat);
+            } else {
+                if (standPat <= alpha) {
+                    return standPat;
+                }
+                beta = Math.min(beta, standPat);
+            }
+            // 先搜索己方的冲四，再搜索对方有活三时能阻止其成活四的点
+            count = board.findThreatPoints(player, ThreatLevel.FOUR, points);
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (board.threatAt(row, col, opponent) == ThreatLevel.OPEN_FOUR
+                            && !board.threatAt(row, col, player).isAtLeast(ThreatLevel.FOUR)) {
+                        points[count++] = row * size + col;
+                    }
+                }
+            }
+            if (count == 0) {
+                return standPat;
+            }
+        }
+
+        int best = mustBlock ? (maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE) : standPat;
+        for (int i = 0; i < count; i++) {
+            int row = points[i] / size;
+            int col = points[i] % size;
+            board.placePiece(row, col, player);
+            int eval = quiescence(board, qDepth - 1, alpha, beta, !maximizing, ply + 1);
+            board.removePiece(row, col);
+            if (maximizing) {
+                best = Math.max(best, eval);
+                alpha = Math.max(alpha, eval);
+            } else {
+                best = Math.min(best, eval);
+                beta = Math.min(beta, eval);
+            }
+            if (beta <= alpha) {
+                break; // Alpha-Beta剪枝
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 计算一方成五的分数
+     *
+     * @param winner 成五的一方
+     * @param ply    成五时距根节点的层数
+     * @return 计算机成五为正，人类玩家成五为负
+     */
+    private static int winScore(Player winner, int ply) {
+        return winner == Player.COMPUTER_PLAYER ? WIN_SCORE - ply : -(WIN_SCORE - ply);
+    }
+
+    /**
+     * 把成五的分数从距根节点的层数换算为距当前节点的层数后存入置换表，
+     * 使同一局面在不同层数被取出时胜负的远近仍然正确
+     *
+     * @param score 分数
+     * @param ply   当前节点距根节点的层数
+     * @return 存入置换表的分数
+     */
+    private static int toTable(int score, int ply) {
+        if (score > GameEvaluator.MAX_SCORE) {
+            return score + ply;
+        }
+        if (score < -GameEvaluator.MAX_SCORE) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * 把置换表中的分数换算回距根节点的层数，与 toTable 相反
+     *
+     * @param score 置换表中的分数
+     * @param ply   当前节点距根节点的层数
+     * @return 分数
+     */
+    private static int fromTable(int score, int ply) {
+        if (score > GameEvaluator.MAX_SCORE) {
+            return score - ply;
+        }
+        if (score < -GameEvaluator.MAX_SCORE) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * 获取静态搜索某一层的候选走法缓冲区，每层独立，避免递归时互相覆盖
+     *
+     * @param qDepth 剩余的静态搜索层数
+     * @param cells  棋盘格子总数
+     * @return 缓冲区
+     */
+    private int[] quiescenceBuffer(int qDepth, int cells) {
+        if (quiescenceBuffers[qDepth] == null || quiescenceBuffers[qDepth].length < cells) {
+            quiescenceBuffers[qDepth] = new int[cells];
         }
+        return quiescenceBuffers[qDepth];
     }
 
     /**
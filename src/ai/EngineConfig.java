@@ -0,0 +1,98 @@
+package ai;
+
+import enums.Player;
+import model.Board;
+
+/**
+ * 类 EngineConfig 负责引擎的启动配置：按内存预算确定置换表大小，并在启动时用几次短搜索预热 JIT，
+ * 使第一次计算机落子与之后的落子耗时相当。
+ *
+ * <pre>
+ * -Dgobang.hashMb=64     置换表内存预算（MB）
+ * -Dgobang.warmup=false  关闭启动预热
+ * </pre>
+ */
+public final class EngineConfig {
+    /**
+     * 置换表内存预算的系统属性名
+     */
+    public static final String HASH_PROPERTY = "gobang.hashMb";
+    /**
+     * 是否启动预热的系统属性名
+     */
+    public static final String WARMUP_PROPERTY = "gobang.warmup";
+    /**
+     * 默认的置换表内存预算（MB）
+     */
+    public static final int DEFAULT_HASH_MB = 64;
+    /**
+     * 预热搜索的深度
+     */
+    public static final int WARMUP_DEPTH = 4;
+    /**
+     * 预热局面：人类玩家与计算机的棋子按顺序落下，格式为 {row, col}，最后一子为人类玩家
+     */
+    private static final int[][][] WARMUP_POSITIONS = {
+            {{7, 7}, {6, 8}, {8, 8}, {6, 6}, {6, 7}},
+            {{7, 7}, {8, 8}, {7, 8}, {7, 6}, {8, 7}, {6, 7}, {9, 7}},
+            {{5, 5}, {6, 6}, {5, 6}, {6, 5}, {4, 7}, {7, 4}, {5, 7}},
+    };
+
+    private EngineConfig() {
+    }
+
+    /**
+     * 获取置换表的内存预算
+     *
+     * @return 内存预算（MB）
+     * @throws IllegalArgumentException 系统属性不是正整数时抛出
+     */
+    public static int getHashMb() {
+        String value = System.getProperty(HASH_PROPERTY);
+        if (value == null) {
+            return DEFAULT_HASH_MB;
+        }
+        int megabytes;
+        try {
+            megabytes = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(HASH_PROPERTY + " 不是整数：" + value, e);
+        }
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException(HASH_PROPERTY + " 必须大于 0：" + value);
+        }
+        return megabytes;
+    }
+
+    /**
+     * 判断是否在启动时预热
+     *
+     * @return 未设置或不为 false 时返回 true
+     */
+    public static boolean isWarmUpEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(WARMUP_PROPERTY, "true").trim());
+    }
+
+    /**
+     * 在几个中局局面上做固定深度的搜索，让搜索、评估和棋盘查询的热点方法提前完成编译。
+     * 预热使用独立的小置换表，不影响正式对局
+     *
+     * @return 预热耗时（毫秒）
+     */
+    public static long warmUp() {
+        long start = System.nanoTime();
+        AlphaBetaPruning search = new AlphaBetaPruning(new TranspositionTable(1));
+        for (int[][] position : WARMUP_POSITIONS) {
+            Board board = new Board();
+            Player player = position.length % 2 == 1 ? Player.HUMAN_PLAYER : Player.COMPUTER_PLAYER;
+            for (int[] move : position) {
+                board.placePiece(move[0], move[1], player);
+                player = player.opposite();
+            }
+            for (int depth = 1; depth <= WARMUP_DEPTH; depth++) {
+                search.minimaxWithAlphaBeta(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+            }
+        }
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+}
@@ -0,0 +1,188 @@
+package ai;
+
+import enums.Player;
+import enums.ThreatLevel;
+import model.Board;
+import model.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 类 Ponderer 在等待人类落子时，于后台线程预测人类的应手并提前计算计算机的回应。
+ * 人类下出已预测的走法时直接复用结果，否则取消后台思考。
+ */
+public class Ponderer {
+    /**
+     * 除主要预测走法外，额外思考的候选应手数量上限
+     */
+    public static final int MAX_CANDIDATES = 4;
+
+    private final int depth;
+    private final AlphaBetaPruning search;
+    private final ExecutorService executor;
+    /**
+     * 预测的人类走法到计算机应对结果的映射，键为 row * size + col
+     */
+    private volatile Map<Integer, CompletableFuture<Move>> replies = new ConcurrentHashMap<>();
+    private volatile int currentKey = -1;
+    private int boardSize;
+    private Future<?> task;
+
+    /**
+     * 构造方法，初始化后台思考线程
+     *
+     * @param depth 计算机应对走法的搜索深度
+     * @param table 置换表，与正式搜索共用，人类下出预测走法以外的棋时后台思考的结果也能被复用
+     */
+    public Ponderer(int depth, TranspositionTable table) {
+        this.depth = depth;
+        this.search = new AlphaBetaPruning(table);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 计算机落子后开始后台思考
+     *
+     * @param board 当前棋盘状态，会被复制，后台线程不会修改原棋盘
+     */
+    public synchronized void start(Board board) {
+        stop();
+        boardSize = board.getSize();
+        Board copy = board.copy();
+        // 每次思考使用独立的结果表，避免被取消的旧任务写入新一轮的结果
+        Map<Integer, CompletableFuture<Move>> session = new ConcurrentHashMap<>();
+        replies = session;
+        task = executor.submit(() -> ponder(copy, session));
+    }
+
+    /**
+     * 人类落子后取出后台思考的结果并停止思考
+     *
+     * @param humanMove 人类实际的走法
+     * @return 已算出的计算机应对走法，若未预测到该走法则返回 null
+     */
+    public synchronized Move take(Move humanMove) {
+        if (task == null) {
+            return null;
+        }
+        Move result = null;
+        int key = humanMove.getRow() * boardSize + humanMove.getCol();
+        CompletableFuture<Move> reply = replies.get(key);
+        // 已完成或正在思考的预测走法直接等待结果，其余情况放弃
+        if (reply != null && (reply.isDone() || currentKey == key)) {
+            try {
+                result = reply.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                result = null;
+            }
+        }
+        stop();
+        return result;
+    }
+
+    /**
+     * 停止后台思考并丢弃所有结果
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+        replies.values().forEach(reply -> reply.cancel(false));
+        replies.clear();
+        currentKey = -1;
+    }
+
+    /**
+     * 后台思考任务，依次为每个预测的人类走法计算计算机的最佳应对
+     *
+     * @param board   棋盘副本
+     * @param session 本轮思考的结果表
+     */
+    private void ponder(Board board, Map<Integer, CompletableFuture<Move>> session) {
+        try {
+            List<Move> predictions = predictReplies(board);
+            for (Move prediction : predictions) {
+                session.put(key(board, prediction), new CompletableFuture<>());
+            }
+            for (Move prediction : predictions) {
+                int key = key(board, prediction);
+                currentKey = key;
+                CompletableFuture<Move> reply = session.get(key);
+                if (reply == null) {
+                    return;
+                }
+                int row = prediction.getRow();
+                int col = prediction.getCol();
+                Move lastMove = board.getLastMove();
+                board.placePiece(row, col, Player.HUMAN_PLAYER);
+                AlphaBetaPruning.MinimaxResult result = search.minimaxWithAlphaBeta(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+                board.removePiece(row, col);
+                board.setLastMove(lastMove);
+                reply.complete(result.move);
+            }
+        } catch (CancellationException e) {
+            // 思考被取消，棋盘副本直接丢弃
+        } finally {
+            currentKey = -1;
+        }
+    }
+
+    /**
+     * 预测人类可能的应手，首个为搜索得到的最佳应手，其后为双方的威胁点
+     *
+     * @param board 棋盘副本
+     * @return 预测走法列表
+     */
+    private List<Move> predictReplies(Board board) {
+        List<Move> predictions = new ArrayList<>();
+        Move best = search.minimaxWithAlphaBeta(board, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, false).move;
+        if (best != null) {
+            predictions.add(best);
+        }
+        int size = board.getSize();
+        int[] points = new int[size * size];
+        List<Move> threats = new ArrayList<>();
+        for (Player player : new Player[]{Player.COMPUTER_PLAYER, Player.HUMAN_PLAYER}) {
+            int count = board.findThreatPoints(player, ThreatLevel.OPEN_THREE, points);
+            for (int i = 0; i < count; i++) {
+                threats.add(new Move(points[i] / size, points[i] % size));
+            }
+        }
+        for (Move threat : threats) {
+            if (predictions.size() > MAX_CANDIDATES) {
+                break;
+            }
+            boolean duplicate = false;
+            for (Move prediction : predictions) {
+                if (prediction.getRow() == threat.getRow() && prediction.getCol() == threat.getCol()) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                predictions.add(threat);
+            }
+        }
+        return predictions;
+    }
+
+    private int key(Board board, Move move) {
+        return move.getRow() * board.getSize() + move.getCol();
+    }
+}
@@ -0,0 +1,164 @@
+package ai;
+
+import enums.Player;
+import model.Board;
+import model.Move;
+
+/**
+ * 类 SearchBenchmark 用一组战术局面比较各选择性搜索技术的效果。
+ * 对每种开关组合输出搜索节点数、耗时以及是否找到了正确的走法。
+ */
+public class SearchBenchmark {
+    /**
+     * 战术局面：人类玩家（X）与计算机（O）的棋子按顺序落下，最后一子为人类玩家，轮到计算机，
+     * expected 为可接受的走法，格式均为 {row, col}
+     */
+    private static final Object[][] POSITIONS = {
+            {"计算机冲四成五",
+                    new int[][]{{8, 3}, {7, 3}, {8, 4}, {7, 4}, {8, 5}, {7, 5}, {9, 9}, {7, 6}, {10, 10}},
+                    new int[][]{{7, 2}, {7, 7}}},
+            {"挡住人类冲四",
+                    new int[][]{{5, 5}, {4, 4}, {6, 6}, {3, 10}, {7, 7}, {10, 3}, {8, 8}},
+                    new int[][]{{9, 9}}},
+            {"挡住人类活三",
+                    new int[][]{{7, 6}, {6, 6}, {7, 7}, {8, 9}, {7, 8}},
+                    new int[][]{{7, 5}, {7, 9}}},
+            {"计算机活三成活四",
+                    new int[][]{{6, 5}, {5, 5}, {6, 6}, {5, 6}, {9, 9}, {5, 7}, {10, 2}},
+                    new int[][]{{5, 4}, {5, 8}}},
+    };
+
+    /**
+     * 随机中局局面，人类玩家先手、最后一子为人类玩家，用于确认前沿剪枝不改变根节点的走法
+     */
+    private static final int[][][] RANDOM_POSITIONS = {
+            {{9, 10}, {8, 4}, {7, 10}, {10, 4}, {10, 10}, {9, 8}, {5, 9}, {9, 5}, {5, 5}, {7, 5}, {6, 4}},
+            {{6, 7}, {5, 9}, {4, 6}, {7, 10}, {7, 9}, {7, 4}, {10, 9}, {4, 7}, {9, 8}, {9, 5}, {7, 8}, {9, 10}, {9, 7}, {10, 5}, {5, 8}, {5, 5}, {4, 9}},
+            {{5, 6}, {8, 8}, {7, 5}, {4, 4}, {9, 8}, {10, 5}, {9, 9}, {10, 10}, {9, 7}, {6, 9}, {9, 5}},
+            {{7, 4}, {5, 8}, {4, 7}, {4, 6}, {10, 8}, {8, 8}, {5, 10}, {8, 7}, {7, 9}, {6, 4}, {5, 4}, {10, 6}, {5, 9}, {8, 6}, {7, 6}, {7, 10}, {5, 6}},
+            {{10, 6}, {5, 4}, {7, 6}, {6, 8}, {7, 7}, {6, 7}, {7, 4}, {5, 5}, {10, 10}, {10, 9}, {7, 9}, {7, 5}, {10, 4}, {4, 9}, {8, 4}, {5, 7}, {9, 8}},
+            {{6, 6}, {4, 10}, {7, 8}, {10, 6}, {6, 4}, {6, 8}, {4, 6}, {7, 4}, {8, 4}, {7, 10}, {7, 7}, {10, 9}, {9, 5}, {6, 5}, {7, 6}, {8, 9}, {9, 6}},
+            {{10, 10}, {7, 8}, {5, 6}, {4, 8}, {4, 5}, {9, 8}, {7, 9}, {5, 10}, {5, 4}, {7, 7}, {4, 7}},
+            {{5, 8}, {7, 4}, {5, 6}, {4, 5}, {9, 9}, {10, 10}, {4, 4}, {4, 8}, {8, 6}, {8, 5}, {4, 10}},
+    };
+    /**
+     * 比较前沿剪枝开关时的最大搜索深度，关闭后期走法减少深度后更深的搜索耗时过长
+     */
+    public static final int FUTILITY_CHECK_DEPTH = 3;
+
+    /**
+     * 开关组合：名称、后期走法减少深度、前沿无望剪枝、远处走法剪枝、置换表
+     */
+    private static final Object[][] CONFIGURATIONS = {
+            {"全部开启", true, true, true, true},
+            {"关闭后期走法减少深度", false, true, true, true},
+            {"关闭前沿无望剪枝", true, false, true, true},
+            {"关闭远处走法剪枝", true, true, false, true},
+            {"关闭置换表", true, true, true, false},
+    };
+
+    private final int depth;
+
+    /**
+     * 构造方法
+     *
+     * @param depth 搜索深度
+     */
+    public SearchBenchmark(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * 运行所有开关组合并输出结果
+     *
+     * @return 所有组合是否都找到了正确的走法
+     */
+    public boolean run() {
+        boolean allPassed = true;
+        for (Object[] configuration : CONFIGURATIONS) {
+            AlphaBetaPruning search = new AlphaBetaPruning();
+            search.setLateMoveReduction((Boolean) configuration[1]);
+            search.setFutilityPruning((Boolean) configuration[2]);
+            search.setDistantMovePruning((Boolean) configuration[3]);
+            search.setTranspositionTable((Boolean) configuration[4]);
+            long totalNodes = 0;
+            long totalTime = 0;
+            int passed = 0;
+            for (Object[] position : POSITIONS) {
+                Board board = buildBoard((int[][]) position[1]);
+                search.resetNodeCount();
+                long start = System.nanoTime();
+                Move move = search.minimaxWithAlphaBeta(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true).move;
+                long elapsed = System.nanoTime() - start;
+                boolean correct = matches(move, (int[][]) position[2]);
+                totalNodes += search.getNodeCount();
+                totalTime += elapsed;
+                if (correct) {
+                    passed++;
+                }
+                System.out.printf("  %-12s %-10s %s 节点 %d 耗时 %dms%n", configuration[0], position[0],
+                        correct ? "通过" : "失败 " + move, search.getNodeCount(), elapsed / 1_000_000L);
+            }
+            System.out.printf("%s：深度 %d，通过 %d/%d，节点 %d，耗时 %dms%n", configuration[0], depth,
+                    passed, POSITIONS.length, totalNodes, totalTime / 1_000_000L);
+            allPassed &= passed == POSITIONS.length;
+        }
+        return checkFutility() && allPassed;
+    }
+
+    /**
+     * 在随机局面上分别开关前沿无望剪枝搜索，确认根节点的走法不变。
+     * 为避免其他技术引起的差异，关闭后期走法减少深度和置换表
+     *
+     * @return 所有局面的走法是否一致
+     */
+    private boolean checkFutility() {
+        int checkDepth = Math.min(depth, FUTILITY_CHECK_DEPTH);
+        int same = 0;
+        long[] nodes = new long[2];
+        for (int[][] position : RANDOM_POSITIONS) {
+            Move[] moves = new Move[2];
+            for (int i = 0; i < 2; i++) {
+                AlphaBetaPruning search = new AlphaBetaPruning(new TranspositionTable(1));
+                search.setLateMoveReduction(false);
+                search.setTranspositionTable(false);
+                search.setFutilityPruning(i == 0);
+                moves[i] = search.minimaxWithAlphaBeta(buildBoard(position), checkDepth,
+                        Integer.MIN_VALUE, Integer.MAX_VALUE, true).move;
+                nodes[i] += search.getNodeCount();
+            }
+            boolean match = moves[0] != null && moves[1] != null
+                    && moves[0].getRow() == moves[1].getRow() && moves[0].getCol() == moves[1].getCol();
+            if (match) {
+                same++;
+            } else {
+                System.out.printf("  前沿剪枝改变了走法：%s / %s%n", moves[0], moves[1]);
+            }
+        }
+        System.out.printf("前沿剪枝一致性：深度 %d，一致 %d/%d，节点 %d（关闭时 %d）%n", checkDepth,
+                same, RANDOM_POSITIONS.length, nodes[0], nodes[1]);
+        return same == RANDOM_POSITIONS.length;
+    }
+
+    private static Board buildBoard(int[][] moves) {
+        Board board = new Board();
+        Player player = moves.length % 2 == 1 ? Player.HUMAN_PLAYER : Player.COMPUTER_PLAYER;
+        for (int[] move : moves) {
+            board.placePiece(move[0], move[1], player);
+            player = player.opposite();
+        }
+        return board;
+    }
+
+    private static boolean matches(Move move, int[][] expected) {
+        if (move == null) {
+            return false;
+        }
+        for (int[] candidate : expected) {
+            if (candidate[0] == move.getRow() && candidate[1] == move.getCol()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
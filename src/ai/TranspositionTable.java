@@ -0,0 +1,147 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * 类 TranspositionTable 是按内存预算分配的置换表，缓存已搜索局面的分数、深度、边界类型和最佳走法。
+ * 每个条目由两个 long 组成，写入时用键与数据异或校验，多个线程同时读写时读到的残缺条目会被丢弃，
+ * 因此后台思考和服务器的多个搜索线程可以共用一张表而无需加锁。
+ */
+public final class TranspositionTable {
+    /**
+     * 分数是局面的精确值
+     */
+    public static final int EXACT = 1;
+    /**
+     * 分数是下界，真实值不低于该分数
+     */
+    public static final int LOWER = 2;
+    /**
+     * 分数是上界，真实值不高于该分数
+     */
+    public static final int UPPER = 3;
+    /**
+     * 没有最佳走法时记录的格子下标
+     */
+    public static final int NO_MOVE = 0xFF;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private long[] keys;
+    private long[] data;
+    private int mask;
+
+    /**
+     * 构造方法，按内存预算分配条目，条目数取不超过预算的最大 2 的幂
+     *
+     * @param megabytes 内存预算（MB），至少分配一个条目
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * 按新的内存预算重新分配，原有内容被丢弃。不能在搜索进行时调用
+     *
+     * @param megabytes 内存预算（MB）
+     */
+    public void resize(int megabytes) {
+        long entries = Math.max(1, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = (int) Long.highestOneBit(Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * 清空所有条目
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * 获取条目数
+     *
+     * @return 条目数
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * 查找局面
+     *
+     * @param key 局面哈希值
+     * @return 打包后的条目数据，未命中返回 0
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    /**
+     * 保存局面，同一位置已有更深的其他局面时保留原条目
+     *
+     * @param key   局面哈希值
+     * @param score 分数
+     * @param depth 剩余搜索深度
+     * @param flag  边界类型：EXACT、LOWER 或 UPPER
+     * @param move  最佳走法的格子下标，没有时为 NO_MOVE
+     */
+    public void store(long key, int score, int depth, int flag, int move) {
+        int index = (int) key & mask;
+        long old = data[index];
+        if ((keys[index] ^ old) != key && old != 0 && depth(old) > depth) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) flag << 40)
+                | ((long) (move & 0xFF) << 42);
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * 从条目中取出分数
+     *
+     * @param entry 条目数据
+     * @return 分数
+     */
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * 从条目中取出剩余搜索深度
+     *
+     * @param entry 条目数据
+     * @return 深度
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * 从条目中取出边界类型
+     *
+     * @param entry 条目数据
+     * @return 边界类型
+     */
+    public static int flag(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * 从条目中取出最佳走法
+     *
+     * @param entry 条目数据
+     * @return 格子下标，没有时为 NO_MOVE
+     */
+    public static int move(long entry) {
+        return (int) (entry >>> 42) & 0xFF;
+    }
+}
@@ -2,29 +2,97 @@ package controller;
 
 
 import ai.AlphaBetaPruning;
+import ai.EngineConfig;
+import ai.Ponderer;
+import ai.TranspositionTable;
 import enums.Player;
 import model.Board;
 import model.Move;
 
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
 /**
  * 类 GameController 负责处理五子棋游戏的逻辑和控制。
  * 包括处理用户输入、更新棋盘状态、判断游戏结束等。
  */
 public class GameController {
-    public static final int MAX_MIN_DEPTH = 3;
+    public static final int MAX_MIN_DEPTH = 4;
+    /**
+     * 限时搜索时迭代加深的最大深度
+     */
+    public static final int MAX_SEARCH_DEPTH = 10;
     private final Board board;
+    private final TranspositionTable table;
     private Player currentPlayer;
     private boolean gameOver;
-    private final AlphaBetaPruning alphaBetaPruning;
+    /**
+     * 提供当前线程使用的搜索器，服务器上由计算线程池的每个线程各持有一个
+     */
+    private final Supplier<AlphaBetaPruning> searcher;
+    /**
+     * 后台思考器，第一次需要后台思考时才创建
+     */
+    private Ponderer ponderer;
+    private boolean pondering;
+    /**
+     * 每步思考时间上限（毫秒），0 表示不限时，按固定深度搜索
+     */
+    private long timeLimit;
 
     /**
-     * 构造方法，初始化游戏控制器
+     * 构造方法，初始化游戏控制器，使用共享的棋盘实例
      */
     public GameController() {
-        this.board = Board.getInstance();
+        this(Board.getInstance());
+    }
+
+    /**
+     * 构造方法，使用指定的棋盘初始化游戏控制器，按 EngineConfig 的内存预算分配置换表
+     *
+     * @param board 棋盘
+     */
+    public GameController(Board board) {
+        this(board, new TranspositionTable(EngineConfig.getHashMb()));
+    }
+
+    /**
+     * 构造方法，使用指定的棋盘和置换表初始化游戏控制器，并创建独立的搜索器，后台思考与正式搜索共用该表
+     *
+     * @param board 棋盘
+     * @param table 置换表，可由多个游戏控制器共用
+     */
+    public GameController(Board board, TranspositionTable table) {
+        this(board, table, ownSearcher(board, table));
+    }
+
+    /**
+     * 构造方法，使用外部提供的搜索器，游戏控制器本身只保存棋盘和对局状态
+     *
+     * @param board    棋盘
+     * @param table    置换表，后台思考时使用
+     * @param searcher 返回当前线程可用的搜索器，同一搜索器不能同时用于两次搜索
+     */
+    public GameController(Board board, TranspositionTable table, Supplier<AlphaBetaPruning> searcher) {
+        this.board = board;
+        this.table = table;
         this.currentPlayer = Player.HUMAN_PLAYER;
         this.gameOver = false;
-        this.alphaBetaPruning = new AlphaBetaPruning();
+        this.searcher = searcher;
+        this.pondering = true;
+    }
+
+    /**
+     * 创建预先分配好搜索栈的搜索器
+     *
+     * @param board 棋盘
+     * @param table 置换表
+     * @return 始终返回该搜索器的 Supplier
+     */
+    private static Supplier<AlphaBetaPruning> ownSearcher(Board board, TranspositionTable table) {
+        AlphaBetaPruning search = new AlphaBetaPruning(table);
+        search.preallocate(MAX_SEARCH_DEPTH, board.getSize() * board.getSize());
+        return () -> search;
     }
 
     /**
@@ -59,6 +127,43 @@ public class GameController {
         return false;
     }
 
+    /**
+     * 重新开始游戏，清空棋盘并由人类玩家先手
+     */
+    public void reset() {
+        stopPondering();
+        board.initializeBoard();
+        currentPlayer = Player.HUMAN_PLAYER;
+        gameOver = false;
+    }
+
+    /**
+     * 撤销一步棋，之后轮到被撤销棋子的一方。撤销后游戏不再处于结束状态；
+     * 棋盘的最后一步仍指向被撤销的空位，isGameOver 对空位返回 false，搜索可以照常进行
+     *
+     * @param move 要撤销的走法
+     * @throws IllegalArgumentException 该位置没有棋子时抛出
+     */
+    public void takeBack(Move move) {
+        Player owner = board.getPiece(move.getRow(), move.getCol());
+        if (owner == null) {
+            throw new IllegalArgumentException("该位置没有棋子");
+        }
+        stopPondering();
+        board.removePiece(move.getRow(), move.getCol());
+        currentPlayer = owner;
+        gameOver = false;
+    }
+
+    /**
+     * 设置当前玩家，用于从外部加载局面后指定轮到哪一方
+     *
+     * @param currentPlayer 当前玩家
+     */
+    public void setCurrentPlayer(Player currentPlayer) {
+        this.currentPlayer = currentPlayer;
+    }
+
     /**
      * 获取当前玩家
      *
@@ -86,14 +191,63 @@ public class GameController {
         return gameOver;
     }
 
+    /**
+     * 设置是否在等待人类落子时进行后台思考
+     *
+     * @param pondering 是否开启后台思考
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * 按新的内存预算重新分配置换表，原有内容被丢弃。会先停止后台思考，
+     * 置换表被其他游戏控制器共用时调用方需保证没有正在进行的搜索
+     *
+     * @param megabytes 内存预算（MB）
+     */
+    public void resizeTable(int megabytes) {
+        stopPondering();
+        table.resize(megabytes);
+    }
+
+    /**
+     * 设置每步思考时间上限，设置后按迭代加深搜索，超时返回已完成的最深一层的结果
+     *
+     * @param timeLimit 时间上限（毫秒），0 表示不限时
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
     /**
      * 计算机下棋逻辑，使用极大极小算法和Alpha-Beta剪枝
+     *
+     * @return 计算机的走法
      */
-    public void computerMove() {
-        AlphaBetaPruning.MinimaxResult result = alphaBetaPruning.minimaxWithAlphaBeta(board, MAX_MIN_DEPTH, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
-        Move bestMove = result.move;
+    public Move computerMove() {
+        if (board.isEmpty()) {
+            // 棋盘为空时直接下在天元
+            Move center = new Move(board.getSize() / 2, board.getSize() / 2);
+            makeMove(center);
+            return center;
+        }
+        // 人类下出了后台思考预测到的走法时直接复用结果
+        Move bestMove = board.getLastMove() == null || ponderer == null ? null : ponderer.take(board.getLastMove());
+        if (bestMove == null || board.getPiece(bestMove.getRow(), bestMove.getCol()) != null) {
+            bestMove = searchBestMove();
+        }
         if (bestMove != null) {
-            makeMove(bestMove);
+            if (!makeMove(bestMove) && pondering) {
+                if (ponderer == null) {
+                    ponderer = new Ponderer(MAX_MIN_DEPTH, table);
+                }
+                ponderer.start(board);
+            }
+            return bestMove;
         } else {
             // 如果没有找到最佳走法，随机选择一个空位
             for (int row = 0; row < board.getSize(); row++) {
@@ -101,11 +255,51 @@ public class GameController {
                     if (board.getPiece(row, col) == null) {
                         Move move = new Move(row, col);
                         makeMove(move);
-                        return;
+                        return move;
                     }
                 }
             }
+            throw new IllegalStateException("棋盘已满");
+        }
+    }
+
+    /**
+     * 停止后台思考，尚未创建后台思考器时什么也不做
+     */
+    private void stopPondering() {
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+
+    /**
+     * 搜索计算机的最佳走法。未限时按固定深度搜索，限时则在棋盘副本上迭代加深
+     *
+     * @return 最佳走法，找不到时返回 null
+     */
+    private Move searchBestMove() {
+        AlphaBetaPruning alphaBetaPruning = searcher.get();
+        if (timeLimit <= 0) {
+            return alphaBetaPruning.minimaxWithAlphaBeta(board, MAX_MIN_DEPTH, Integer.MIN_VALUE, Integer.MAX_VALUE, true).move;
+        }
+        long deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        // 第一层不受时间限制，保证总能给出走法
+        Move bestMove = alphaBetaPruning.minimaxWithAlphaBeta(board.copy(), 1, Integer.MIN_VALUE, Integer.MAX_VALUE, true).move;
+        alphaBetaPruning.setDeadline(deadline);
+        try {
+            for (int depth = 2; depth <= MAX_SEARCH_DEPTH; depth++) {
+                // 超时时搜索会在中途抛出异常，因此在副本上搜索以保证棋盘不被破坏
+                Move move = alphaBetaPruning.minimaxWithAlphaBeta(board.copy(), depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true).move;
+                if (move != null) {
+                    bestMove = move;
+                }
+            }
+        } catch (CancellationException e) {
+            // 超时，使用已完成的最深一层的结果
+        } finally {
+            alphaBetaPruning.setDeadline(0);
         }
+        return bestMove;
     }
 }
 
@@ -0,0 +1,37 @@
+package enums;
+
+/**
+ * 枚举类 ThreatLevel 表示在某个空位落子后形成的威胁等级，按从低到高的顺序排列。
+ */
+public enum ThreatLevel {
+    /**
+     * 没有威胁
+     */
+    NONE,
+    /**
+     * 活三：再下一子即可形成活四
+     */
+    OPEN_THREE,
+    /**
+     * 冲四：只有一个点可以成五
+     */
+    FOUR,
+    /**
+     * 活四：有两个点可以成五，无法防守
+     */
+    OPEN_FOUR,
+    /**
+     * 连五：直接获胜
+     */
+    FIVE;
+
+    /**
+     * 判断是否不低于指定等级
+     *
+     * @param other 指定等级
+     * @return 如果不低于返回 true，否则返回 false
+     */
+    public boolean isAtLeast(ThreatLevel other) {
+        return compareTo(other) >= 0;
+    }
+}
@@ -1,12 +1,76 @@
 package model;
 
 import enums.Player;
+import enums.ThreatLevel;
+
+import java.util.Random;
 
 public class Board {
     /**
      * 棋盘大小，默认为15x15
      */
-    private static final int SIZE = 15;
+    public static final int SIZE = 15;
+    private static final int CELLS = SIZE * SIZE;
+    /**
+     * 四条线的方向：横、竖、左上到右下、右上到左下
+     */
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    /**
+     * 线上相邻格的偏移，每个格子在每个方向上看前后各四格
+     */
+    private static final int[] OFFSETS = {-4, -3, -2, -1, 1, 2, 3, 4};
+    /**
+     * 线编码中每格占两位：0 空位，1 人类玩家，2 计算机玩家，3 棋盘外
+     */
+    private static final int HUMAN_DIGIT = 1;
+    private static final int COMPUTER_DIGIT = 2;
+    private static final int EDGE_DIGIT = 3;
+    /**
+     * 预先计算的线索引，LINES[cell][dir][k] 为 cell 在 dir 方向上第 k 个相邻格的下标，越界为 -1
+     */
+    private static final int[][][] LINES = new int[CELLS][DIRECTIONS.length][OFFSETS.length];
+    /**
+     * 空棋盘上各格的线编码，只包含棋盘外的格子
+     */
+    private static final int[][] EMPTY_CODES = new int[DIRECTIONS.length][CELLS];
+    /**
+     * 按线编码查表得到威胁等级，LEVELS[0] 为人类玩家，LEVELS[1] 为计算机玩家
+     */
+    private static final byte[][] LEVELS = new byte[2][1 << (2 * OFFSETS.length)];
+    private static final ThreatLevel[] THREAT_LEVELS = ThreatLevel.values();
+    /**
+     * Zobrist 随机数，ZOBRIST[0] 为人类玩家，ZOBRIST[1] 为计算机玩家，使用固定种子保证结果可复现
+     */
+    private static final long[][] ZOBRIST = new long[2][CELLS];
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / SIZE;
+            int col = cell % SIZE;
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                for (int k = 0; k < OFFSETS.length; k++) {
+                    int r = row + OFFSETS[k] * DIRECTIONS[dir][0];
+                    int c = col + OFFSETS[k] * DIRECTIONS[dir][1];
+                    if (r >= 0 && r < SIZE && c >= 0 && c < SIZE) {
+                        LINES[cell][dir][k] = r * SIZE + c;
+                    } else {
+                        LINES[cell][dir][k] = -1;
+                        EMPTY_CODES[dir][cell] |= EDGE_DIGIT << (2 * k);
+                    }
+                }
+            }
+        }
+        Random random = new Random(20241019L);
+        for (int cell = 0; cell < CELLS; cell++) {
+            ZOBRIST[0][cell] = random.nextLong();
+            ZOBRIST[1][cell] = random.nextLong();
+        }
+        for (int code = 0; code < LEVELS[0].length; code++) {
+            LEVELS[0][code] = (byte) lineThreat(code, HUMAN_DIGIT).ordinal();
+            LEVELS[1][code] = (byte) lineThreat(code, COMPUTER_DIGIT).ordinal();
+        }
+    }
+
     /**
      * 二维数组表示的棋盘状态
      * null 表示空位，PLAYER_ONE 表示玩家一，PLAYER_TWO 表示计算机
@@ -17,9 +81,22 @@ public class Board {
 
     private Move lastMove;
 
-    private Board() {
+    /**
+     * 每个格子在四个方向上的线编码，落子和提子时增量更新
+     */
+    private final int[][] lineCodes = new int[DIRECTIONS.length][CELLS];
+    /**
+     * 当前局面的 Zobrist 哈希值，落子和提子时增量更新
+     */
+    private long hash;
+
+    /**
+     * 构造方法，创建一个独立的空棋盘。界面使用 getInstance() 获取共享棋盘，
+     * 服务器等需要同时进行多局游戏的场景为每局创建独立的棋盘
+     */
+    public Board() {
         this.board = new Player[SIZE][SIZE];
-        initializeBoard();
+        clear();
     }
 
     /**
@@ -34,15 +111,45 @@ public class Board {
         return instance;
     }
 
+    /**
+     * 复制当前棋盘，用于在后台线程中独立搜索而不影响界面使用的棋盘
+     *
+     * @return 与当前状态相同的新棋盘
+     */
+    public Board copy() {
+        Board copy = new Board();
+        for (int i = 0; i < SIZE; i++) {
+            System.arraycopy(board[i], 0, copy.board[i], 0, SIZE);
+        }
+        for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+            System.arraycopy(lineCodes[dir], 0, copy.lineCodes[dir], 0, CELLS);
+        }
+        copy.hash = hash;
+        copy.lastMove = lastMove;
+        return copy;
+    }
+
     /**
      * 初始化棋盘，所有位置设为空位（null）
      */
     public void initializeBoard() {
+        clear();
+    }
+
+    /**
+     * 清空棋子、线编码、哈希值和最后一步，供构造方法和 initializeBoard() 使用
+     */
+    private void clear() {
         for (int i = 0; i < SIZE; i++) {
             for (int j = 0; j < SIZE; j++) {
                 board[i][j] = null;
             }
         }
+        for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+            System.arraycopy(EMPTY_CODES[dir], 0, lineCodes[dir], 0, CELLS);
+        }
+        hash = 0;
+        lastMove = null;
     }
 
     /**
@@ -69,6 +176,22 @@ public class Board {
         }
     }
 
+    /**
+     * 判断棋盘上是否没有棋子
+     *
+     * @return 没有棋子返回 true，否则返回 false
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (board[i][j] != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * 在指定位置放置棋子
      *
@@ -80,6 +203,8 @@ public class Board {
         if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
             if (board[row][col] == null) {
                 board[row][col] = piece;
+                updateLineCodes(row * SIZE + col, digit(piece));
+                hash ^= zobrist(row * SIZE + col, piece);
                 setLastMove(new Move(row, col));
             } else {
                 throw new IllegalArgumentException("该位置已经被占");
@@ -97,7 +222,11 @@ public class Board {
      */
     public void removePiece(int row, int col) {
         if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            board[row][col] = null;
+            if (board[row][col] != null) {
+                updateLineCodes(row * SIZE + col, -digit(board[row][col]));
+                hash ^= zobrist(row * SIZE + col, board[row][col]);
+                board[row][col] = null;
+            }
         } else {
             throw new IllegalArgumentException("这个位置不存在");
         }
@@ -112,6 +241,10 @@ public class Board {
      */
     public boolean isGameOver(int lastRow, int lastCol) {
         Player currentPlayer = board[lastRow][lastCol];
+        // 该位置的棋子已被移除（如搜索结束后遗留的最后一步）时不算结束
+        if (currentPlayer == null) {
+            return false;
+        }
         return checkWin(lastRow, lastCol, currentPlayer);
     }
 
@@ -124,63 +257,192 @@ public class Board {
      * @return 如果当前玩家获胜返回true，否则返回false
      */
     private boolean checkWin(int row, int col, Player currentPlayer) {
-        // 检查水平方向是否有五个连珠
-        if (checkDirection(row, col, currentPlayer, 0, 1))
-            return true;
-        // 检查垂直方向是否有五个连珠
-        if (checkDirection(row, col, currentPlayer, 1, 0))
-            return true;
-        // 检查左上到右下的对角线方向是否有五个连珠
-        if (checkDirection(row, col, currentPlayer, 1, 1))
-            return true;
-        // 检查右上到左下的对角线方向是否有五个连珠
-        return checkDirection(row, col, currentPlayer, 1, -1);
+        byte[] levels = LEVELS[currentPlayer == Player.HUMAN_PLAYER ? 0 : 1];
+        int cell = row * SIZE + col;
+        for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+            if (levels[lineCodes[dir][cell]] == ThreatLevel.FIVE.ordinal()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * 检查指定方向是否有五个连珠
+     * 判断指定玩家在空位落子后是否直接获胜
      *
-     * @param row         当前行坐标
-     * @param col         当前列坐标
-     * @param currentPlayer 当前玩家
-     * @param deltaRow    行方向增量
-     * @param deltaCol    列方向增量
-     * @return 如果在指定方向上有五个连珠返回true，否则返回false
-     */
-    private boolean checkDirection(int row, int col, Player currentPlayer, int deltaRow, int deltaCol) {
-        int count = 1; // 包括当前位置的一个棋子
-        // 向一个方向检查
-        for (int i = 1; i < 5; i++) {
-            int newRow = row + i * deltaRow;
-            int newCol = col + i * deltaCol;
-            if (isValidPosition(newRow, newCol) && board[newRow][newCol] == currentPlayer) {
-                count++;
-            } else {
-                break;
+     * @param row    行坐标
+     * @param col    列坐标
+     * @param player 指定玩家
+     * @return 如果获胜返回true，否则返回false；该位置已有棋子时返回false
+     */
+    public boolean winsAt(int row, int col, Player player) {
+        return board[row][col] == null && checkWin(row, col, player);
+    }
+
+    /**
+     * 获取指定玩家在空位落子后形成的最高威胁等级，只需查表，不分配对象
+     *
+     * @param row    行坐标
+     * @param col    列坐标
+     * @param player 指定玩家
+     * @return 威胁等级；该位置已有棋子时返回 NONE
+     */
+    public ThreatLevel threatAt(int row, int col, Player player) {
+        if (board[row][col] != null) {
+            return ThreatLevel.NONE;
+        }
+        byte[] levels = LEVELS[player == Player.HUMAN_PLAYER ? 0 : 1];
+        int cell = row * SIZE + col;
+        int level = 0;
+        for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+            level = Math.max(level, levels[lineCodes[dir][cell]]);
+        }
+        return THREAT_LEVELS[level];
+    }
+
+    /**
+     * 找出指定玩家落子后威胁等级不低于 minLevel 的所有空位
+     *
+     * @param player   指定玩家
+     * @param minLevel 最低威胁等级
+     * @param points   输出数组，写入格子下标 row * size + col，长度应不小于格子总数
+     * @return 找到的空位数量
+     */
+    public int findThreatPoints(Player player, ThreatLevel minLevel, int[] points) {
+        int count = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (board[cell / SIZE][cell % SIZE] == null && threatAt(cell / SIZE, cell % SIZE, player).isAtLeast(minLevel)) {
+                points[count++] = cell;
             }
         }
-        // 向相反方向检查
-        for (int i = 1; i < 5; i++) {
-            int newRow = row - i * deltaRow;
-            int newCol = col - i * deltaCol;
-            if (isValidPosition(newRow, newCol) && board[newRow][newCol] == currentPlayer) {
-                count++;
-            } else {
-                break;
+        return count;
+    }
+
+    /**
+     * 找出指定玩家下一步即可获胜的所有空位
+     *
+     * @param player 指定玩家
+     * @param points 输出数组，写入格子下标 row * size + col
+     * @return 找到的空位数量
+     */
+    public int findWinningPoints(Player player, int[] points) {
+        return findThreatPoints(player, ThreatLevel.FIVE, points);
+    }
+
+    /**
+     * 找出指定玩家必须防守的所有空位，即对方下一步即可获胜的点
+     *
+     * @param player 需要防守的玩家
+     * @param points 输出数组，写入格子下标 row * size + col
+     * @return 找到的空位数量
+     */
+    public int findBlockingPoints(Player player, int[] points) {
+        return findThreatPoints(player.opposite(), ThreatLevel.FIVE, points);
+    }
+
+    /**
+     * 落子或提子后更新受影响格子的线编码
+     *
+     * @param cell  落子或提子的格子下标
+     * @param delta 棋子的编码，提子时取负
+     */
+    private void updateLineCodes(int cell, int delta) {
+        for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+            int[] line = LINES[cell][dir];
+            for (int k = 0; k < OFFSETS.length; k++) {
+                int neighbour = line[k];
+                if (neighbour >= 0) {
+                    // 从相邻格看，cell 位于相反的偏移上
+                    lineCodes[dir][neighbour] += delta << (2 * (OFFSETS.length - 1 - k));
+                }
             }
         }
-        return count >= 5;
     }
 
     /**
-     * 检查位置是否有效
+     * 获取当前局面的 Zobrist 哈希值，用于置换表
      *
-     * @param row 行坐标
-     * @param col 列坐标
-     * @return 如果位置有效返回true，否则返回false
+     * @return 哈希值
      */
-    private boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    public long getHash() {
+        return hash;
+    }
+
+    private static long zobrist(int cell, Player player) {
+        return ZOBRIST[player == Player.HUMAN_PLAYER ? 0 : 1][cell];
+    }
+
+    private static int digit(Player player) {
+        return player == Player.HUMAN_PLAYER ? HUMAN_DIGIT : COMPUTER_DIGIT;
+    }
+
+    /**
+     * 根据线编码计算在中心落子后的威胁等级，只在类初始化时用于建表
+     *
+     * @param code 中心前后各四格的线编码
+     * @param own  己方棋子的编码
+     * @return 威胁等级
+     */
+    private static ThreatLevel lineThreat(int code, int own) {
+        // line[4] 为中心，视为己方棋子；1 己方，0 空位，2 对方或棋盘外
+        int[] line = new int[9];
+        line[4] = 1;
+        for (int k = 0; k < OFFSETS.length; k++) {
+            int digit = (code >> (2 * k)) & 3;
+            line[OFFSETS[k] + 4] = digit == 0 ? 0 : (digit == own ? 1 : 2);
+        }
+
+        // 连五：穿过中心的连续己方棋子不少于五个
+        int count = 1;
+        for (int i = 5; i < 9 && line[i] == 1; i++) {
+            count++;
+        }
+        for (int i = 3; i >= 0 && line[i] == 1; i--) {
+            count++;
+        }
+        if (count >= 5) {
+            return ThreatLevel.FIVE;
+        }
+
+        // 活四与活三：六格窗口两端为空，中间四格包含中心
+        ThreatLevel level = ThreatLevel.NONE;
+        for (int start = 0; start <= 3; start++) {
+            if (line[start] != 0 || line[start + 5] != 0) {
+                continue;
+            }
+            int stones = 0;
+            int empty = 0;
+            for (int i = start + 1; i <= start + 4; i++) {
+                if (line[i] == 1) {
+                    stones++;
+                } else if (line[i] == 0) {
+                    empty++;
+                }
+            }
+            if (stones == 4) {
+                return ThreatLevel.OPEN_FOUR;
+            }
+            if (stones == 3 && empty == 1) {
+                level = ThreatLevel.OPEN_THREE;
+            }
+        }
+
+        // 冲四：五格窗口包含中心，四子一空
+        for (int start = 0; start <= 4; start++) {
+            int stones = 0;
+            int empty = 0;
+            for (int i = start; i < start + 5; i++) {
+                if (line[i] == 1) {
+                    stones++;
+                } else if (line[i] == 0) {
+                    empty++;
+                }
+            }
+            if (stones == 4 && empty == 1) {
+                return ThreatLevel.FOUR;
+            }
+        }
+        return level;
     }
 
     /**
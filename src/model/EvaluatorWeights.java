@@ -0,0 +1,170 @@
+package model;
+
+import enums.Player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * 类 EvaluatorWeights 保存评估函数中各类连珠的分值。
+ * 分值可以从配置文件读取，也可以由调参工具写回配置文件。
+ */
+public class EvaluatorWeights {
+    /**
+     * 指定配置文件路径的系统属性，如 -Dgobang.weights=weights.properties
+     */
+    public static final String PROPERTY = "gobang.weights";
+    /**
+     * 未指定系统属性时，在工作目录下查找的配置文件名
+     */
+    public static final String DEFAULT_FILE = "gobang-weights.properties";
+    /**
+     * 配置文件中的键，顺序与 toArray() 一致
+     */
+    public static final String[] KEYS = {"com5", "com4", "com3", "com2", "com1", "human5", "human4", "human3", "human2", "human1"};
+    /**
+     * 单个分值的上限。GameEvaluator 用 long 累加并把结果截断到 MAX_SCORE，
+     * 分值过大时多数局面的评估都会被截断，失去区分度
+     */
+    public static final int MAX_WEIGHT = 10000000;
+
+    private static EvaluatorWeights defaultWeights;
+
+    private final int[] weights;
+
+    /**
+     * 构造方法，按 KEYS 的顺序设置分值
+     *
+     * @param weights 分值数组
+     * @throws IllegalArgumentException 分值数量不对或某个分值不在 1 到 MAX_WEIGHT 之间时抛出
+     */
+    public EvaluatorWeights(int[] weights) {
+        if (weights.length != KEYS.length) {
+            throw new IllegalArgumentException("分值数量应为 " + KEYS.length);
+        }
+        for (int i = 0; i < KEYS.length; i++) {
+            if (weights[i] < 1 || weights[i] > MAX_WEIGHT) {
+                throw new IllegalArgumentException("分值 " + KEYS[i] + "=" + weights[i] + " 应在 1 到 " + MAX_WEIGHT + " 之间");
+            }
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * 获取内置的默认分值，即 GameEvaluator 中的常量
+     *
+     * @return 默认分值
+     */
+    public static EvaluatorWeights builtIn() {
+        return new EvaluatorWeights(new int[]{
+                GameEvaluator.COM_5, GameEvaluator.COM_4, GameEvaluator.COM_3, GameEvaluator.COM_2, GameEvaluator.COM_1,
+                GameEvaluator.HUMAN_5, GameEvaluator.HUMAN_4, GameEvaluator.HUMAN_3, GameEvaluator.HUMAN_2, GameEvaluator.HUMAN_1});
+    }
+
+    /**
+     * 获取程序使用的分值。首次调用时读取系统属性指定的配置文件，
+     * 未指定时读取工作目录下的 gobang-weights.properties，都不存在则使用内置分值
+     *
+     * @return 分值
+     */
+    public static synchronized EvaluatorWeights getDefault() {
+        if (defaultWeights == null) {
+            String file = System.getProperty(PROPERTY);
+            Path path = Paths.get(file != null ? file : DEFAULT_FILE);
+            if (Files.exists(path)) {
+                try {
+                    defaultWeights = load(path);
+                } catch (IOException | IllegalArgumentException e) {
+                    throw new IllegalStateException("无法读取评估分值配置: " + path, e);
+                }
+            } else if (file != null) {
+                throw new IllegalStateException("评估分值配置不存在: " + path);
+            } else {
+                defaultWeights = builtIn();
+            }
+        }
+        return defaultWeights;
+    }
+
+    /**
+     * 从配置文件读取分值，缺少的键使用内置分值
+     *
+     * @param path 配置文件路径
+     * @return 分值
+     * @throws IOException              读取失败时抛出
+     * @throws IllegalArgumentException 分值不是整数或超出范围时抛出
+     */
+    public static EvaluatorWeights load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        }
+        int[] weights = builtIn().toArray();
+        for (int i = 0; i < KEYS.length; i++) {
+            String value = properties.getProperty(KEYS[i]);
+            if (value != null) {
+                try {
+                    weights[i] = Integer.parseInt(value.trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("分值 " + KEYS[i] + " 不是整数: " + value, e);
+                }
+            }
+        }
+        return new EvaluatorWeights(weights);
+    }
+
+    /**
+     * 将分值写入配置文件
+     *
+     * @param path    配置文件路径
+     * @param comment 文件头部的注释
+     * @throws IOException 写入失败时抛出
+     */
+    public void save(Path path, String comment) throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < KEYS.length; i++) {
+            properties.setProperty(KEYS[i], String.valueOf(weights[i]));
+        }
+        try (OutputStream out = Files.newOutputStream(path)) {
+            properties.store(out, comment);
+        }
+    }
+
+    /**
+     * 获取指定玩家 count 连珠的分值
+     *
+     * @param player 玩家
+     * @param count  连珠数量，1 到 5
+     * @return 分值
+     */
+    public int get(Player player, int count) {
+        int offset = player == Player.COMPUTER_PLAYER ? 0 : 5;
+        return weights[offset + 5 - count];
+    }
+
+    /**
+     * 按 KEYS 的顺序返回分值数组的副本
+     *
+     * @return 分值数组
+     */
+    public int[] toArray() {
+        return weights.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < KEYS.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(KEYS[i]).append('=').append(weights[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -18,18 +18,91 @@ public class GameEvaluator {
     public static final int HUMAN_3 = 10000;
     public static final int HUMAN_2 = 1000;
     public static final int HUMAN_1 = 100;
+    /**
+     * 评估分数的绝对值上限，分值很大时累加结果被截断到该值而不会溢出
+     */
+    public static final int MAX_SCORE = 1000000000;
+    private final EvaluatorWeights weights;
+
+    /**
+     * 构造方法，使用配置文件或内置的分值
+     */
+    public GameEvaluator() {
+        this(EvaluatorWeights.getDefault());
+    }
+
+    /**
+     * 构造方法，使用指定的分值
+     *
+     * @param weights 各类连珠的分值
+     */
+    public GameEvaluator(EvaluatorWeights weights) {
+        this.weights = weights;
+    }
 
     /**
      * 评估棋盘状态的价值，还没有反向检测
      *
      * @param board 当前棋盘状态
-     * @return 评估分数，正值表示人类玩家有利，负值表示计算机玩家有利
+     * @return 评估分数，正值表示人类玩家有利，负值表示计算机玩家有利，绝对值不超过 MAX_SCORE
      */
     public int evaluate(Board board) {
-        int humanScore = calculateScore(board, Player.HUMAN_PLAYER);
-        int computerScore = calculateScore(board, Player.COMPUTER_PLAYER);
+        long humanScore = calculateScore(board, Player.HUMAN_PLAYER);
+        long computerScore = calculateScore(board, Player.COMPUTER_PLAYER);
 
-        return computerScore - humanScore;
+        return (int) Math.max(-MAX_SCORE, Math.min(MAX_SCORE, computerScore - humanScore));
+    }
+
+    /**
+     * 计算一方在指定空位落子后的评估分数，与落子后调用 evaluate 的结果相同。
+     * 每个棋子的得分只取决于经过它的直线，落子只影响经过该点的四条线，因此只重新计算这四条线
+     *
+     * @param board  当前棋盘状态，计算时临时落子，返回前恢复
+     * @param score  当前局面 evaluate 的结果，不能是被截断的值
+     * @param row    行坐标
+     * @param col    列坐标
+     * @param player 落子的一方
+     * @return 落子后的评估分数
+     */
+    public int evaluateAfter(Board board, int score, int row, int col, Player player) {
+        long delta = -lineScores(board, row, col);
+        Move lastMove = board.getLastMove();
+        board.placePiece(row, col, player);
+        delta += lineScores(board, row, col);
+        board.removePiece(row, col);
+        board.setLastMove(lastMove);
+        return (int) Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score + delta));
+    }
+
+    /**
+     * 计算经过指定点的四条线上所有棋子的得分之和，计算机为正，人类玩家为负。
+     * 棋子沿一条线的正反两个方向得分相同，因此每条线只算一个方向再乘以 2
+     *
+     * @param board 当前棋盘状态
+     * @param row   行坐标
+     * @param col   列坐标
+     * @return 四条线的得分
+     */
+    private long lineScores(Board board, int row, int col) {
+        long score = 0;
+        for (int axis = 0; axis < 4; axis++) {
+            int[] direction = DIRECTIONS[axis];
+            int r = row;
+            int c = col;
+            while (r - direction[0] >= 0 && r - direction[0] < board.getSize()
+                    && c - direction[1] >= 0 && c - direction[1] < board.getSize()) {
+                r -= direction[0];
+                c -= direction[1];
+            }
+            for (; r >= 0 && r < board.getSize() && c >= 0 && c < board.getSize(); r += direction[0], c += direction[1]) {
+                Player piece = board.getPiece(r, c);
+                if (piece != null) {
+                    int value = 2 * evaluateDirection(board, r, c, direction, piece);
+                    score += piece == Player.COMPUTER_PLAYER ? value : -value;
+                }
+            }
+        }
+        return score;
     }
 
     /**
@@ -37,10 +110,10 @@ public class GameEvaluator {
      *
      * @param board   当前棋盘状态
      * @param player  指定玩家
-     * @return 玩家的得分
+     * @return 玩家的得分，用 long 累加避免分值很大时溢出
      */
-    private int calculateScore(Board board, Player player) {
-        int score = 0;
+    private long calculateScore(Board board, Player player) {
+        long score = 0;
 
         for (int row = 0; row < board.getSize(); row++) {
             for (int col = 0; col < board.getSize(); col++) {
@@ -51,7 +124,6 @@ public class GameEvaluator {
                 }
             }
         }
-        System.out.println(String.format("%7d\t%s", score, player.toString()));
         return score;
     }
 
@@ -104,32 +176,17 @@ public class GameEvaluator {
             col -= direction[1];
         }
 
-        if (player == Player.COMPUTER_PLAYER) {
-            // 根据连珠数量和空位数计算得分
-            if (count == 5) {
-                return COM_5; // 连成五子
-            } else if (count == 4 && emptyCount >= 1) {
-                return COM_4; // 四子一空
-            } else if (count == 3 && emptyCount >= 2) {
-                return COM_3; // 三子两空
-            } else if (count == 2 && emptyCount >= 3) {
-                return COM_2; // 二子三空
-            } else if (count == 1 && emptyCount >= 4) {
-                return COM_1; // 一子四空
-            }
-        }else if (player == Player.HUMAN_PLAYER) {
-            // 根据连珠数量和空位数计算得分
-            if (count == 5) {
-                return HUMAN_5; // 连成五子
-            } else if (count == 4 && emptyCount >= 1) {
-                return HUMAN_4; // 四子一空
-            } else if (count == 3 && emptyCount >= 2) {
-                return HUMAN_3; // 三子两空
-            } else if (count == 2 && emptyCount >= 3) {
-                return HUMAN_2; // 二子三空
-            } else if (count == 1 && emptyCount >= 4) {
-                return HUMAN_1; // 一子四空
-            }
+        // 根据连珠数量和空位数计算得分
+        if (count == 5) {
+            return weights.get(player, 5); // 连成五子
+        } else if (count == 4 && emptyCount >= 1) {
+            return weights.get(player, 4); // 四子一空
+        } else if (count == 3 && emptyCount >= 2) {
+            return weights.get(player, 3); // 三子两空
+        } else if (count == 2 && emptyCount >= 3) {
+            return weights.get(player, 2); // 二子三空
+        } else if (count == 1 && emptyCount >= 4) {
+            return weights.get(player, 1); // 一子四空
         }
         return 0;
     }
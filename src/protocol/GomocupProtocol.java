@@ -0,0 +1,246 @@
+package protocol;
+
+import ai.EngineConfig;
+import controller.GameController;
+import enums.Player;
+import model.Board;
+import model.Move;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 类 GomocupProtocol 实现 Gomocup/piskvork 的标准引擎协议，
+ * 通过标准输入输出与比赛管理器通信，不启动图形界面。
+ * 协议中 1 表示本引擎（计算机玩家），2 表示对手（人类玩家），坐标为 "x,y"，x 为列，y 为行。
+ */
+public class GomocupProtocol {
+    /**
+     * 未收到时间信息时的默认每步思考时间（毫秒）
+     */
+    public static final long DEFAULT_TURN_TIME = 5000;
+    /**
+     * 为通信和落子预留的时间（毫秒）
+     */
+    public static final long TIME_MARGIN = 100;
+    /**
+     * 按剩余总时间分配每步时间时，假定的剩余步数
+     */
+    public static final int EXPECTED_MOVES_LEFT = 20;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final GameController gameController;
+    private final Board board;
+    private long timeoutTurn = DEFAULT_TURN_TIME;
+    private long timeoutMatch;
+    private long timeLeft = -1;
+    private int hashMb = EngineConfig.getHashMb();
+
+    /**
+     * 构造方法，初始化协议的输入输出
+     *
+     * @param in  命令输入流
+     * @param out 响应输出流
+     */
+    public GomocupProtocol(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+        this.gameController = new GameController();
+        this.board = gameController.getBoard();
+        // 比赛中不允许占用对手的思考时间
+        gameController.setPondering(false);
+    }
+
+    /**
+     * 循环读取并处理命令，直到收到 END 或输入结束
+     *
+     * @throws IOException 读取输入失败时抛出
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 2);
+            String command = parts[0].toUpperCase();
+            String argument = parts.length > 1 ? parts[1] : "";
+            if ("END".equals(command)) {
+                return;
+            }
+            try {
+                handle(command, argument);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                out.println("ERROR " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 处理单条命令
+     *
+     * @param command  命令名称（大写）
+     * @param argument 命令参数
+     * @throws IOException 读取 BOARD 命令的后续行失败时抛出
+     */
+    private void handle(String command, String argument) throws IOException {
+        switch (command) {
+            case "START":
+                int size = Integer.parseInt(argument.trim());
+                if (size != board.getSize()) {
+                    out.println("ERROR 只支持 " + board.getSize() + "x" + board.getSize() + " 的棋盘");
+                    return;
+                }
+                gameController.reset();
+                out.println("OK");
+                break;
+            case "RESTART":
+                gameController.reset();
+                out.println("OK");
+                break;
+            case "BEGIN":
+                gameController.setCurrentPlayer(Player.COMPUTER_PLAYER);
+                play();
+                break;
+            case "TURN":
+                // TURN 总是对手的棋子，不依赖悔棋后的轮次
+                gameController.setCurrentPlayer(Player.HUMAN_PLAYER);
+                gameController.makeMove(parseMove(argument));
+                play();
+                break;
+            case "BOARD":
+                loadBoard();
+                play();
+                break;
+            case "TAKEBACK":
+                gameController.takeBack(parseMove(argument));
+                out.println("OK");
+                break;
+            case "INFO":
+                info(argument);
+                break;
+            case "ABOUT":
+                out.println("name=\"GobangComputer2\", version=\"2.0\", author=\"GobangComputer2\", country=\"CN\"");
+                break;
+            default:
+                out.println("UNKNOWN " + command);
+                break;
+        }
+    }
+
+    /**
+     * 读取 BOARD 命令后的局面，直到 DONE
+     *
+     * @throws IOException 读取输入失败时抛出
+     */
+    private void loadBoard() throws IOException {
+        gameController.reset();
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if ("DONE".equalsIgnoreCase(line)) {
+                break;
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("无效的局面行: " + line);
+            }
+            Move move = parseMove(fields[0] + "," + fields[1]);
+            Player player = "1".equals(fields[2].trim()) ? Player.COMPUTER_PLAYER : Player.HUMAN_PLAYER;
+            board.placePiece(move.getRow(), move.getCol(), player);
+        }
+        gameController.setCurrentPlayer(Player.COMPUTER_PLAYER);
+    }
+
+    /**
+     * 处理 INFO 命令，记录时间限制
+     *
+     * @param argument 形如 "key value" 的参数
+     */
+    private void info(String argument) {
+        String[] parts = argument.trim().split("\\s+", 2);
+        if (parts.length < 2) {
+            return;
+        }
+        switch (parts[0].toLowerCase()) {
+            case "timeout_turn":
+                timeoutTurn = Long.parseLong(parts[1]);
+                break;
+            case "timeout_match":
+                timeoutMatch = Long.parseLong(parts[1]);
+                break;
+            case "time_left":
+                timeLeft = Long.parseLong(parts[1]);
+                break;
+            case "max_memory":
+                resizeTable(Long.parseLong(parts[1]));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 按比赛的内存限制调整置换表，置换表最多占用限制的一半，其余留给 JVM 的其他部分
+     *
+     * @param maxMemory 内存限制（字节），0 表示不限制
+     */
+    private void resizeTable(long maxMemory) {
+        long limit = maxMemory <= 0 ? EngineConfig.getHashMb() : maxMemory / 2 / (1024 * 1024);
+        int megabytes = (int) Math.max(1, Math.min(EngineConfig.getHashMb(), limit));
+        if (megabytes != hashMb) {
+            gameController.resizeTable(megabytes);
+            hashMb = megabytes;
+        }
+    }
+
+    /**
+     * 在时间限制内计算并输出本引擎的走法
+     */
+    private void play() {
+        gameController.setTimeLimit(turnBudget());
+        Move move = gameController.computerMove();
+        out.println(move.getCol() + "," + move.getRow());
+    }
+
+    /**
+     * 根据每步时限和剩余总时间计算本步可用的思考时间
+     *
+     * @return 思考时间（毫秒），至少 1 毫秒；timeout_turn 为 0 时只做最浅一层搜索
+     */
+    private long turnBudget() {
+        long budget = timeoutTurn;
+        if (timeoutMatch > 0 && timeLeft >= 0) {
+            budget = Math.min(budget, timeLeft / EXPECTED_MOVES_LEFT);
+        }
+        return Math.max(1, budget - TIME_MARGIN);
+    }
+
+    /**
+     * 解析 "x,y" 形式的坐标
+     *
+     * @param text 坐标文本
+     * @return 对应的走法
+     */
+    private Move parseMove(String text) {
+        String[] fields = text.trim().split(",");
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("无效的坐标: " + text);
+        }
+        int col = Integer.parseInt(fields[0].trim());
+        int row = Integer.parseInt(fields[1].trim());
+        if (row < 0 || row >= board.getSize() || col < 0 || col >= board.getSize()) {
+            throw new IllegalArgumentException("这个位置不存在");
+        }
+        return new Move(row, col);
+    }
+}
@@ -0,0 +1,347 @@
+package server;
+
+import ai.AlphaBetaPruning;
+import ai.EngineConfig;
+import ai.TranspositionTable;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.GameController;
+import model.Board;
+import model.Move;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类 GameServer 是内嵌的 HTTP 游戏服务器，可同时托管多局游戏。
+ * 请求在虚拟线程上处理，计算机的搜索在固定大小的计算线程池上按到达顺序执行，
+ * 每次搜索有时间预算，排队已满时返回 503 让客户端稍后重试。
+ * 所有游戏共用一张按 EngineConfig 内存预算分配的置换表，每个计算线程持有一个搜索器，
+ * 每局游戏只保存棋盘和对局状态，因此搜索所需的内存不随游戏数增长。
+ *
+ * <pre>
+ * POST   /games                          创建一局游戏
+ * GET    /games/{id}                     查询棋盘状态
+ * POST   /games/{id}/move?row=&amp;col=&amp;timeMs= 人类落子并返回计算机的应对
+ * DELETE /games/{id}                     结束一局游戏
+ * GET    /stats                          服务器统计信息
+ * </pre>
+ */
+public class GameServer {
+    /**
+     * 默认每步搜索时间预算（毫秒）
+     */
+    public static final long DEFAULT_BUDGET = 1000;
+    /**
+     * 客户端可请求的最大每步搜索时间（毫秒）
+     */
+    public static final long MAX_BUDGET = 10000;
+    /**
+     * 同时存在的最大游戏数
+     */
+    public static final int MAX_SESSIONS = 10000;
+    /**
+     * 游戏闲置多久后被清理（分钟）
+     */
+    public static final long SESSION_TIMEOUT = 10;
+
+    private final HttpServer httpServer;
+    private final ThreadPoolExecutor searchPool;
+    private final ScheduledExecutorService sweeper;
+    private final TranspositionTable table = new TranspositionTable(EngineConfig.getHashMb());
+    /**
+     * 每个计算线程的搜索器，同一时间最多只有计算线程数个搜索在进行
+     */
+    private final ThreadLocal<AlphaBetaPruning> searchers = ThreadLocal.withInitial(() -> {
+        AlphaBetaPruning search = new AlphaBetaPruning(table);
+        search.preallocate(GameController.MAX_SEARCH_DEPTH, Board.SIZE * Board.SIZE);
+        return search;
+    });
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 构造方法，初始化服务器
+     *
+     * @param port          监听端口
+     * @param searchThreads 计算线程数
+     * @param queueCapacity 等待搜索的最大排队数
+     * @throws IOException 端口绑定失败时抛出
+     */
+    public GameServer(int port, int searchThreads, int queueCapacity) throws IOException {
+        this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        this.httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.httpServer.createContext("/games", this::handleGames);
+        this.httpServer.createContext("/stats", this::handleStats);
+        // 公平队列保证搜索按到达顺序执行，队列满时拒绝而不是无限堆积
+        this.searchPool = new ThreadPoolExecutor(searchThreads, searchThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity, true), runnable -> {
+                    Thread thread = new Thread(runnable, "search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 以默认配置创建服务器，计算线程数等于 CPU 核数
+     *
+     * @param port 监听端口
+     * @throws IOException 端口绑定失败时抛出
+     */
+    public GameServer(int port) throws IOException {
+        this(port, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * 启动服务器
+     */
+    public void start() {
+        sweeper.scheduleAtFixedRate(this::sweepSessions, SESSION_TIMEOUT, 1, TimeUnit.MINUTES);
+        httpServer.start();
+    }
+
+    /**
+     * 停止服务器
+     */
+    public void stop() {
+        httpServer.stop(0);
+        searchPool.shutdownNow();
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 获取实际监听的端口
+     *
+     * @return 端口
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * 处理 /games 下的请求
+     *
+     * @param exchange HTTP 交换
+     * @throws IOException 写响应失败时抛出
+     */
+    private void handleGames(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            // path 形如 ["", "games", "{id}", "move"]
+            if (path.length == 2 && "POST".equals(method)) {
+                createGame(exchange);
+                return;
+            }
+            GameSession session = path.length >= 3 ? sessions.get(path[2]) : null;
+            if (session == null) {
+                send(exchange, 404, error("游戏不存在"));
+                return;
+            }
+            session.touch();
+            if (path.length == 3 && "GET".equals(method)) {
+                if (!session.tryLock()) {
+                    send(exchange, 409, error("该局游戏正在处理其他请求"));
+                    return;
+                }
+                try {
+                    send(exchange, 200, session.toJson());
+                } finally {
+                    session.unlock();
+                }
+            } else if (path.length == 3 && "DELETE".equals(method)) {
+                if (sessions.remove(session.getId()) != null) {
+                    sessionCount.decrementAndGet();
+                }
+                send(exchange, 204, null);
+            } else if (path.length == 4 && "move".equals(path[3]) && "POST".equals(method)) {
+                move(exchange, session);
+            } else {
+                send(exchange, 405, error("不支持的请求"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 创建一局新游戏
+     *
+     * @param exchange HTTP 交换
+     * @throws IOException 写响应失败时抛出
+     */
+    private void createGame(HttpExchange exchange) throws IOException {
+        if (sessionCount.incrementAndGet() > MAX_SESSIONS) {
+            sessionCount.decrementAndGet();
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 503, error("游戏数已达上限"));
+            return;
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), table, searchers::get);
+        sessions.put(session.getId(), session);
+        send(exchange, 201, session.toJson());
+    }
+
+    /**
+     * 处理人类落子，并在计算线程池上计算计算机的应对
+     *
+     * @param exchange HTTP 交换
+     * @param session  游戏会话
+     * @throws IOException 写响应失败时抛出
+     */
+    private void move(HttpExchange exchange, GameSession session) throws IOException {
+        long start = System.nanoTime();
+        if (!session.tryLock()) {
+            send(exchange, 409, error("该局游戏正在处理其他请求"));
+            return;
+        }
+        try {
+            GameController gameController = session.getGameController();
+            if (gameController.isGameOver()) {
+                send(exchange, 409, error("游戏已经结束"));
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Move humanMove;
+            long budget;
+            try {
+                humanMove = new Move(Integer.parseInt(query.get("row")), Integer.parseInt(query.get("col")));
+                budget = query.containsKey("timeMs") ? Long.parseLong(query.get("timeMs")) : DEFAULT_BUDGET;
+                if (gameController.makeMove(humanMove)) {
+                    send(exchange, 200, "{\"gameOver\":true,\"winner\":\"" + gameController.getCurrentPlayer() + "\"}");
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage() == null ? "参数错误" : e.getMessage()));
+                return;
+            }
+
+            // 预算从收到请求开始计算，排队时间也计入
+            long deadline = start + Math.max(1, Math.min(budget, MAX_BUDGET)) * 1_000_000L;
+            Future<Move> reply;
+            try {
+                reply = searchPool.submit(() -> {
+                    gameController.setTimeLimit(Math.max(1, (deadline - System.nanoTime()) / 1_000_000L));
+                    return gameController.computerMove();
+                });
+            } catch (RejectedExecutionException e) {
+                session.undoHumanMove(humanMove);
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("服务器繁忙，请稍后重试"));
+                return;
+            }
+            Move computerMove;
+            try {
+                computerMove = reply.get();
+            } catch (InterruptedException e) {
+                reply.cancel(true);
+                Thread.currentThread().interrupt();
+                send(exchange, 503, error("服务器正在关闭"));
+                return;
+            } catch (ExecutionException e) {
+                send(exchange, 500, error(String.valueOf(e.getCause().getMessage())));
+                return;
+            }
+            searches.increment();
+            StringBuilder json = new StringBuilder();
+            json.append("{\"row\":").append(computerMove.getRow())
+                    .append(",\"col\":").append(computerMove.getCol())
+                    .append(",\"gameOver\":").append(gameController.isGameOver());
+            if (gameController.isGameOver()) {
+                json.append(",\"winner\":\"").append(gameController.getCurrentPlayer()).append('"');
+            }
+            json.append(",\"elapsedMs\":").append((System.nanoTime() - start) / 1_000_000L).append('}');
+            send(exchange, 200, json.toString());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    /**
+     * 处理 /stats 请求
+     *
+     * @param exchange HTTP 交换
+     * @throws IOException 写响应失败时抛出
+     */
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, "{\"games\":" + sessionCount.get()
+                    + ",\"activeSearches\":" + searchPool.getActiveCount()
+                    + ",\"queuedSearches\":" + searchPool.getQueue().size()
+                    + ",\"completedSearches\":" + searches.sum()
+                    + ",\"rejected\":" + rejected.sum()
+                    + ",\"searchThreads\":" + searchPool.getMaximumPoolSize() + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 清理长时间未访问的游戏
+     */
+    private void sweepSessions() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MINUTES.toNanos(SESSION_TIMEOUT);
+        for (GameSession session : sessions.values()) {
+            if (now - session.getLastAccess() > timeout && sessions.remove(session.getId(), session)) {
+                sessionCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0) {
+                params.put(pair.substring(0, index), pair.substring(index + 1));
+            }
+        }
+        return params;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package server;
+
+import ai.AlphaBetaPruning;
+import ai.TranspositionTable;
+import controller.GameController;
+import enums.Player;
+import model.Board;
+import model.Move;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 类 GameSession 表示服务器上的一局游戏，只保存棋盘和对局状态，搜索器由计算线程提供。
+ * 同一局游戏同一时间只处理一个请求。
+ */
+public final class GameSession {
+    private final String id;
+    private final GameController gameController;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccess;
+
+    /**
+     * 构造方法，创建一局新游戏
+     *
+     * @param id       会话标识
+     * @param table    所有会话共用的置换表
+     * @param searcher 返回当前计算线程的搜索器
+     */
+    public GameSession(String id, TranspositionTable table, Supplier<AlphaBetaPruning> searcher) {
+        this.id = id;
+        this.gameController = new GameController(new Board(), table, searcher);
+        // 服务器上由共享的计算线程池负责搜索，不进行后台思考
+        gameController.setPondering(false);
+        touch();
+    }
+
+    /**
+     * 获取会话标识
+     *
+     * @return 会话标识
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取游戏控制器，调用方需持有会话锁
+     *
+     * @return 游戏控制器
+     */
+    public GameController getGameController() {
+        return gameController;
+    }
+
+    /**
+     * 尝试获取会话锁，同一局游戏已有请求在处理时返回 false
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    /**
+     * 释放会话锁
+     */
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * 撤销人类玩家刚下的一步，用于计算机无法及时应对时让客户端重试
+     *
+     * @param move 人类玩家的走法
+     */
+    public void undoHumanMove(Move move) {
+        gameController.takeBack(move);
+    }
+
+    /**
+     * 记录最近一次访问时间
+     */
+    public void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    /**
+     * 获取最近一次访问时间
+     *
+     * @return 最近一次访问时间（System.nanoTime）
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * 以 JSON 格式输出棋盘状态，'.' 表示空位，'X' 表示人类玩家，'O' 表示计算机玩家
+     *
+     * @return JSON 字符串
+     */
+    public String toJson() {
+        Board board = gameController.getBoard();
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":\"").append(id).append("\",\"size\":").append(board.getSize()).append(",\"board\":[");
+        for (int row = 0; row < board.getSize(); row++) {
+            if (row > 0) {
+                json.append(',');
+            }
+            json.append('"');
+            for (int col = 0; col < board.getSize(); col++) {
+                Player piece = board.getPiece(row, col);
+                json.append(piece == null ? '.' : (piece == Player.HUMAN_PLAYER ? 'X' : 'O'));
+            }
+            json.append('"');
+        }
+        json.append("],\"gameOver\":").append(gameController.isGameOver()).append('}');
+        return json.toString();
+    }
+}
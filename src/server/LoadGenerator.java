@@ -0,0 +1,166 @@
+package server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 类 LoadGenerator 是游戏服务器的压力测试客户端。
+ * 每个虚拟线程模拟一名玩家，随机落子直到游戏结束或达到步数上限，
+ * 最后输出吞吐量、延迟分位数和被拒绝的请求数，用于评估一台机器能同时支撑多少局游戏。
+ */
+public class LoadGenerator {
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final Pattern ROW = Pattern.compile("\"row\":(\\d+)");
+    private static final Pattern COL = Pattern.compile("\"col\":(\\d+)");
+    private static final int SIZE = 15;
+
+    private final URI baseUri;
+    private final int games;
+    private final int movesPerGame;
+    private final long budget;
+    private final HttpClient client;
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder finishedGames = new LongAdder();
+
+    /**
+     * 构造方法，初始化压力测试参数
+     *
+     * @param baseUri      服务器地址，如 http://localhost:8080
+     * @param games        同时进行的游戏数
+     * @param movesPerGame 每局最多下的步数
+     * @param budget       每步请求的搜索时间预算（毫秒）
+     */
+    public LoadGenerator(URI baseUri, int games, int movesPerGame, long budget) {
+        this.baseUri = baseUri;
+        this.games = games;
+        this.movesPerGame = movesPerGame;
+        this.budget = budget;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * 运行压力测试并输出报告
+     *
+     * @throws InterruptedException 等待玩家线程时被中断
+     */
+    public void run() throws InterruptedException {
+        long start = System.nanoTime();
+        try (ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                players.submit(this::playGame);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        report(elapsed);
+    }
+
+    /**
+     * 模拟一名玩家下完一局
+     */
+    private void playGame() {
+        try {
+            HttpResponse<String> created = send(HttpRequest.newBuilder(baseUri.resolve("/games"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            if (created.statusCode() != 201) {
+                rejected.increment();
+                return;
+            }
+            Matcher idMatcher = ID.matcher(created.body());
+            if (!idMatcher.find()) {
+                errors.increment();
+                return;
+            }
+            String id = idMatcher.group(1);
+            boolean[][] occupied = new boolean[SIZE][SIZE];
+            for (int moves = 0; moves < movesPerGame; moves++) {
+                int row;
+                int col;
+                do {
+                    row = ThreadLocalRandom.current().nextInt(SIZE);
+                    col = ThreadLocalRandom.current().nextInt(SIZE);
+                } while (occupied[row][col]);
+
+                long requestStart = System.nanoTime();
+                HttpResponse<String> response = send(HttpRequest.newBuilder(
+                                baseUri.resolve("/games/" + id + "/move?row=" + row + "&col=" + col + "&timeMs=" + budget))
+                        .POST(HttpRequest.BodyPublishers.noBody()));
+                if (response.statusCode() == 503) {
+                    // 服务器繁忙，退避后重试同一步
+                    rejected.increment();
+                    Thread.sleep(100 + ThreadLocalRandom.current().nextInt(400));
+                    moves--;
+                    continue;
+                }
+                if (response.statusCode() != 200) {
+                    errors.increment();
+                    break;
+                }
+                latencies.add(System.nanoTime() - requestStart);
+                occupied[row][col] = true;
+                String body = response.body();
+                if (body.contains("\"gameOver\":true")) {
+                    break;
+                }
+                Matcher rowMatcher = ROW.matcher(body);
+                Matcher colMatcher = COL.matcher(body);
+                if (rowMatcher.find() && colMatcher.find()) {
+                    occupied[Integer.parseInt(rowMatcher.group(1))][Integer.parseInt(colMatcher.group(1))] = true;
+                }
+            }
+            finishedGames.increment();
+            send(HttpRequest.newBuilder(baseUri.resolve("/games/" + id)).DELETE());
+        } catch (IOException e) {
+            errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * 输出压力测试报告
+     *
+     * @param elapsed 总耗时（纳秒）
+     */
+    private void report(long elapsed) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        double seconds = elapsed / 1e9;
+        System.out.printf("games=%d finished=%d moves=%d rejected=%d errors=%d time=%.1fs%n",
+                games, finishedGames.sum(), sorted.size(), rejected.sum(), errors.sum(), seconds);
+        System.out.printf("throughput=%.1f moves/s%n", sorted.size() / seconds);
+        if (!sorted.isEmpty()) {
+            System.out.printf("latency p50=%dms p95=%dms p99=%dms max=%dms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), sorted.get(sorted.size() - 1) / 1_000_000L);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000L;
+    }
+}
@@ -0,0 +1,123 @@
+package tuning;
+
+import ai.AlphaBetaPruning;
+import ai.TranspositionTable;
+import enums.Player;
+import model.Board;
+import model.Move;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 类 SelfPlayRecorder 通过引擎自我对弈生成调参用的局面记录。
+ * 每局从天元和若干随机开局走法开始，双方都用浅层搜索落子，记录每一步后的局面及最终结果。
+ * 多局对弈在所有 CPU 核上并行进行。
+ */
+public class SelfPlayRecorder {
+    private final int games;
+    private final int depth;
+    private final int randomMoves;
+
+    /**
+     * 构造方法，设置自我对弈参数
+     *
+     * @param games       对弈局数
+     * @param depth       双方的搜索深度
+     * @param randomMoves 开局随机走法的步数，用于产生不同的对局
+     */
+    public SelfPlayRecorder(int games, int depth, int randomMoves) {
+        this.games = games;
+        this.depth = depth;
+        this.randomMoves = randomMoves;
+    }
+
+    /**
+     * 进行自我对弈并把局面写入文件
+     *
+     * @param output 输出文件
+     * @return 记录的局面数
+     * @throws IOException 写入失败时抛出
+     */
+    public int record(Path output) throws IOException {
+        List<String> lines = IntStream.range(0, games)
+                .parallel()
+                .mapToObj(game -> playGame())
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return lines.size();
+    }
+
+    /**
+     * 下一局自我对弈
+     *
+     * @return 该局的局面记录，格式见 TrainingPosition
+     */
+    private List<String> playGame() {
+        Board board = new Board();
+        // 各局并行进行，每局使用独立的小置换表
+        AlphaBetaPruning search = new AlphaBetaPruning(new TranspositionTable(4));
+        List<String> positions = new ArrayList<>();
+        int center = board.getSize() / 2;
+        Player player = Player.HUMAN_PLAYER;
+        board.placePiece(center, center, player);
+        Player winner = null;
+        int moves = 1;
+        while (winner == null && moves < board.getSize() * board.getSize()) {
+            player = player.opposite();
+            Move move = moves <= randomMoves ? randomMove(board, center) : null;
+            if (move == null) {
+                move = search.minimaxWithAlphaBeta(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                        player == Player.COMPUTER_PLAYER).move;
+            }
+            if (move == null) {
+                break;
+            }
+            board.placePiece(move.getRow(), move.getCol(), player);
+            moves++;
+            if (board.isGameOver(move.getRow(), move.getCol())) {
+                winner = player;
+            }
+            positions.add(TrainingPosition.encode(board));
+        }
+        String result = winner == null ? "0.5" : (winner == Player.COMPUTER_PLAYER ? "1" : "0");
+        List<String> lines = new ArrayList<>(positions.size());
+        for (String position : positions) {
+            lines.add(position + " " + result);
+        }
+        return lines;
+    }
+
+    /**
+     * 在天元附近随机选择一个空位
+     *
+     * @param board  当前棋盘状态
+     * @param center 天元坐标
+     * @return 随机走法，找不到时返回 null
+     */
+    private Move randomMove(Board board, int center) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 50; attempt++) {
+            int row = center + random.nextInt(-3, 4);
+            int col = center + random.nextInt(-3, 4);
+            if (board.getPiece(row, col) == null) {
+                return new Move(row, col);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package tuning;
+
+import model.Board;
+import model.EvaluatorWeights;
+import model.GameEvaluator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 类 TexelTuner 用 Texel 方法离线调整评估分值。
+ * 把评估分数经 logistic 函数映射为计算机获胜的概率，与记录的对局结果比较，
+ * 以均方误差为目标在对数空间内逐个分值做局部搜索。误差在所有 CPU 核上并行计算。
+ */
+public class TexelTuner {
+    /**
+     * 单个分值的上限，与配置文件允许的上限一致
+     */
+    public static final int MAX_WEIGHT = EvaluatorWeights.MAX_WEIGHT;
+    /**
+     * 每次调整分值时乘除的初始倍数
+     */
+    public static final double INITIAL_STEP = 2.0;
+    /**
+     * 倍数缩小到该值以下时停止
+     */
+    public static final double MIN_STEP = 1.05;
+    /**
+     * 每个计算线程复用的棋盘，评估前把压缩的局面展开到上面
+     */
+    private static final ThreadLocal<Board> BOARDS = ThreadLocal.withInitial(Board::new);
+
+    private final List<TrainingPosition> positions;
+
+    /**
+     * 构造方法
+     *
+     * @param positions 局面记录
+     */
+    public TexelTuner(List<TrainingPosition> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * 从文件逐行读取局面记录，忽略空行
+     *
+     * @param path 局面记录文件
+     * @return 局面记录列表
+     * @throws IOException 读取失败时抛出
+     */
+    public static List<TrainingPosition> loadPositions(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(TrainingPosition::parse)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 从初始分值出发调参
+     *
+     * @param start         初始分值
+     * @param maxIterations 最多遍历所有分值的轮数
+     * @return 调整后的分值
+     */
+    public EvaluatorWeights tune(EvaluatorWeights start, int maxIterations) {
+        int[] best = start.toArray();
+        double scale = fitScale(new EvaluatorWeights(best));
+        double bestError = error(new EvaluatorWeights(best), scale);
+        System.out.printf("初始误差 %.6f，缩放系数 %.1f%n", bestError, scale);
+
+        double step = INITIAL_STEP;
+        for (int iteration = 1; iteration <= maxIterations && step >= MIN_STEP; iteration++) {
+            boolean improved = false;
+            for (int i = 0; i < best.length; i++) {
+                for (double factor : new double[]{step, 1 / step}) {
+                    int[] candidate = best.clone();
+                    candidate[i] = (int) Math.max(1, Math.min(MAX_WEIGHT, Math.round(best[i] * factor)));
+                    if (candidate[i] == best[i]) {
+                        continue;
+                    }
+                    double candidateError = error(new EvaluatorWeights(candidate), scale);
+                    if (candidateError < bestError) {
+                        best = candidate;
+                        bestError = candidateError;
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+            if (!improved) {
+                step = Math.sqrt(step);
+            }
+            System.out.printf("第 %d 轮误差 %.6f，倍数 %.3f：%s%n", iteration, bestError, step, new EvaluatorWeights(best));
+        }
+        return new EvaluatorWeights(best);
+    }
+
+    /**
+     * 计算给定分值在全部局面上的均方误差
+     *
+     * @param weights 分值
+     * @param scale   logistic 函数的缩放系数
+     * @return 均方误差
+     */
+    public double error(EvaluatorWeights weights, double scale) {
+        GameEvaluator evaluator = new GameEvaluator(weights);
+        double sum = positions.parallelStream()
+                .mapToDouble(position -> {
+                    double probability = 1 / (1 + Math.exp(-evaluator.evaluate(position.loadInto(BOARDS.get())) / scale));
+                    double diff = position.getResult() - probability;
+                    return diff * diff;
+                })
+                .sum();
+        return sum / positions.size();
+    }
+
+    /**
+     * 在对数刻度上寻找使误差最小的缩放系数，调参过程中保持不变
+     *
+     * @param weights 分值
+     * @return 缩放系数
+     */
+    private double fitScale(EvaluatorWeights weights) {
+        double bestScale = 1;
+        double bestError = Double.MAX_VALUE;
+        for (double exponent = 0; exponent <= 9; exponent += 0.125) {
+            double scale = Math.pow(10, exponent);
+            double error = error(weights, scale);
+            if (error < bestError) {
+                bestError = error;
+                bestScale = scale;
+            }
+        }
+        return bestScale;
+    }
+}
@@ -0,0 +1,110 @@
+package tuning;
+
+import enums.Player;
+import model.Board;
+
+/**
+ * 类 TrainingPosition 表示一条调参用的局面记录。
+ * 文本格式为一行：按行优先排列的棋盘（'.' 空位，'X' 人类玩家，'O' 计算机玩家），空格，
+ * 对局结果（1 计算机胜，0 人类胜，0.5 和棋）。
+ * 内存中每个格子只占一个字节，评估时再展开到可复用的棋盘上，大量局面也不会占用过多内存。
+ */
+public class TrainingPosition {
+    private static final byte EMPTY = 0;
+    private static final byte HUMAN = 1;
+    private static final byte COMPUTER = 2;
+
+    /**
+     * 按行优先排列的格子：0 空位，1 人类玩家，2 计算机玩家
+     */
+    private final byte[] cells;
+    private final double result;
+
+    /**
+     * 构造方法
+     *
+     * @param board  局面，只记录棋子，不保留对棋盘的引用
+     * @param result 对局结果，以计算机玩家的角度表示
+     */
+    public TrainingPosition(Board board, double result) {
+        this.cells = new byte[board.getSize() * board.getSize()];
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                Player piece = board.getPiece(row, col);
+                cells[row * board.getSize() + col] = piece == null ? EMPTY : (piece == Player.HUMAN_PLAYER ? HUMAN : COMPUTER);
+            }
+        }
+        this.result = result;
+    }
+
+    private TrainingPosition(byte[] cells, double result) {
+        this.cells = cells;
+        this.result = result;
+    }
+
+    /**
+     * 把局面摆到指定棋盘上，棋盘原有的棋子被清空
+     *
+     * @param board 棋盘，大小须与局面一致
+     * @return 传入的棋盘
+     */
+    public Board loadInto(Board board) {
+        board.initializeBoard();
+        int size = board.getSize();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != EMPTY) {
+                board.placePiece(i / size, i % size, cells[i] == HUMAN ? Player.HUMAN_PLAYER : Player.COMPUTER_PLAYER);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * 获取对局结果
+     *
+     * @return 对局结果，以计算机玩家的角度表示
+     */
+    public double getResult() {
+        return result;
+    }
+
+    /**
+     * 将棋盘编码为文本
+     *
+     * @param board 棋盘
+     * @return 编码后的文本
+     */
+    public static String encode(Board board) {
+        StringBuilder builder = new StringBuilder(board.getSize() * board.getSize());
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                Player piece = board.getPiece(row, col);
+                builder.append(piece == null ? '.' : (piece == Player.HUMAN_PLAYER ? 'X' : 'O'));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解析一行局面记录
+     *
+     * @param line 局面记录
+     * @return 局面记录对象
+     */
+    public static TrainingPosition parse(String line) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("无效的局面记录: " + line);
+        }
+        String text = fields[0];
+        if (text.length() != Board.SIZE * Board.SIZE) {
+            throw new IllegalArgumentException("棋盘大小不匹配: " + line);
+        }
+        byte[] cells = new byte[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            char cell = text.charAt(i);
+            cells[i] = cell == 'X' ? HUMAN : (cell == 'O' ? COMPUTER : EMPTY);
+        }
+        return new TrainingPosition(cells, Double.parseDouble(fields[1]));
+    }
+}